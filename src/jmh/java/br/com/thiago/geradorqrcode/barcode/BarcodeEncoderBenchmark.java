@@ -0,0 +1,67 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import br.com.thiago.geradorqrcode.render.ModuleLayout;
+import br.com.thiago.geradorqrcode.render.QrPngRenderer;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de cada simbologia: só a codificação ({@code encode}) e codificação mais
+ * o PNG de 300 px ({@code encodeAndRender}), pelo mesmo caminho do serviço.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BarcodeEncoderBenchmark {
+
+    @Param({"QR_CODE", "DATA_MATRIX", "AZTEC", "CODE_128", "EAN_13"})
+    private BarcodeFormat format;
+
+    private BarcodeEncoder encoder;
+    private QrPngRenderer renderer;
+    private String contents;
+    private int quietZone;
+
+    @Setup
+    public void setUp() {
+        encoder = new BarcodeEncoders(List.of(new QrCodeEncoder(), new DataMatrixEncoder(), new AztecEncoder(),
+                new Code128Encoder(), new Ean13Encoder())).get(format);
+        renderer = new QrPngRenderer();
+        quietZone = encoder.defaultQuietZone();
+        contents = switch (format) {
+            case EAN_13 -> "789100031550";
+            case CODE_128 -> "WH-0042-A17-000315";
+            default -> "https://exemplo.com.br/produto/000315?lote=A17";
+        };
+    }
+
+    @Benchmark
+    public BitMatrix encode() throws WriterException {
+        return encoder.encode(contents, Map.of());
+    }
+
+    @Benchmark
+    public byte[] encodeAndRender() throws WriterException {
+        final var modules = encoder.encode(contents, Map.of());
+        return renderer.render(modules, 300, ModuleLayout.heightFor(modules, 300, quietZone), quietZone, 0xFF000000, 0xFFFFFFFF);
+    }
+}
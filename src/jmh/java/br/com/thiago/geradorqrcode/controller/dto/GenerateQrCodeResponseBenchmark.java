@@ -0,0 +1,51 @@
+package br.com.thiago.geradorqrcode.controller.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON da resposta do generate-link, com o data URI escrito em
+ * streaming, para imagens do tamanho de um PNG padrão (~0,5 KB) até uma imagem
+ * grande com logo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerateQrCodeResponseBenchmark {
+
+    @Param({"512", "16384", "262144"})
+    public int imageBytes;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GenerateQrCodeResponse response;
+
+    @Setup
+    public void setUp() {
+        final var image = new byte[imageBytes];
+        ThreadLocalRandom.current().nextBytes(image);
+        response = new GenerateQrCodeResponse(image, "https://s.example/abc");
+    }
+
+    @Benchmark
+    public void writeJson() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.thiago.geradorqrcode.decode;
+
+import br.com.thiago.geradorqrcode.barcode.QrCodeEncoder;
+import br.com.thiago.geradorqrcode.render.QrPngRenderer;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão da leitura de {@code /qrcode/decode} sem o HTTP: {@code decode} é o
+ * caminho inteiro (bytes da imagem até os códigos), {@code decodeRaster} e
+ * {@code decodeCopyingSource} isolam a detecção para comparar o
+ * {@link RasterLuminanceSource} com o {@code BufferedImageLuminanceSource} do ZXing.
+ * <p>
+ * Amostras: o PNG de 1 bit do gerador, um PNG RGB de 1024 px com o centro
+ * coberto (como um logo), uma foto JPEG de 1600 px e uma folha 4x4 lida com
+ * {@code multiple}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BarcodeDecoderBenchmark {
+
+    private static final String TEXT = "https://example.com/campanha/2024/qr-code-benchmark";
+
+    @Param({"png-300", "png-logo-1024", "jpeg-1600", "sheet-4x4"})
+    public String sample;
+
+    private DecodeScheduler decodeScheduler;
+    private BarcodeDecoder decoder;
+    private byte[] bytes;
+    private BufferedImage image;
+    private boolean multiple;
+
+    @Setup
+    public void setUp() throws WriterException, IOException {
+        decodeScheduler = new DecodeScheduler(1, 64, new SimpleMeterRegistry());
+        decoder = new BarcodeDecoder(decodeScheduler, DataSize.ofMegabytes(10), 4096, 50_000_000, true);
+        final var renderer = new QrPngRenderer();
+        final var encoder = new QrCodeEncoder();
+        multiple = sample.startsWith("sheet");
+        bytes = switch (sample) {
+            case "png-300" -> renderer.render(encoder.encode(TEXT, Map.of()), 300, 300, 1, 0xFF000000, 0xFFFFFFFF);
+            case "png-logo-1024" -> {
+                final var qr = renderer.renderImage(encoder.encode(TEXT, Map.of(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H)),
+                        1024, 1024, 1, 0xFF000000, 0xFFFFFFFF);
+                fillCenter(qr, 0.2);
+                yield write(qr, "png");
+            }
+            case "jpeg-1600" -> {
+                // QR Code no meio de um quadro maior e cinza, como numa foto
+                final var photo = new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB);
+                final var graphics = photo.createGraphics();
+                graphics.setColor(new Color(0x8A8F94));
+                graphics.fillRect(0, 0, photo.getWidth(), photo.getHeight());
+                graphics.drawImage(renderer.renderImage(encoder.encode(TEXT, Map.of()), 600, 600, 4, 0xFF202020, 0xFFF0F0F0),
+                        500, 300, null);
+                graphics.dispose();
+                yield write(photo, "jpeg");
+            }
+            case "sheet-4x4" -> {
+                final var sheet = new BufferedImage(1600, 1600, BufferedImage.TYPE_INT_RGB);
+                final var graphics = sheet.createGraphics();
+                for (int i = 0; i < 16; i++) {
+                    graphics.drawImage(renderer.renderImage(encoder.encode(TEXT + "/" + i, Map.of()), 400, 400, 4, 0xFF000000, 0xFFFFFFFF),
+                            (i % 4) * 400, (i / 4) * 400, null);
+                }
+                graphics.dispose();
+                yield write(sheet, "png");
+            }
+            default -> throw new IllegalArgumentException(sample);
+        };
+        image = decoder.readImage(bytes);
+        final int expected = multiple ? 16 : 1;
+        if (decoder.decode(image, multiple, null).size() != expected) {
+            throw new IllegalStateException("Sample " + sample + " does not decode to " + expected + " codes");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        decodeScheduler.destroy();
+    }
+
+    @Benchmark
+    public List<DecodedBarcode> decode() {
+        return decoder.decode(decoder.readImage(bytes), multiple, null);
+    }
+
+    @Benchmark
+    public Result decodeRaster() throws NotFoundException {
+        return read(RasterLuminanceSource.of(image));
+    }
+
+    @Benchmark
+    public Result decodeCopyingSource() throws NotFoundException {
+        return read(new BufferedImageLuminanceSource(image));
+    }
+
+    private static Result read(LuminanceSource source) throws NotFoundException {
+        return new MultiFormatReader().decode(new BinaryBitmap(new HybridBinarizer(source)));
+    }
+
+    private static void fillCenter(BufferedImage image, double fraction) {
+        final int side = (int) (image.getWidth() * fraction);
+        final var graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+        graphics.dispose();
+    }
+
+    private static byte[] write(BufferedImage image, String format) throws IOException {
+        final var output = new ByteArrayOutputStream();
+        ImageIO.write(image, format, output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.thiago.geradorqrcode.render;
+
+import br.com.thiago.geradorqrcode.barcode.QrCodeEncoder;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.client.j2se.MatrixToImageConfig;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o caminho antigo (BitMatrix escalada → MatrixToImageWriter → ImageIO)
+ * com o {@link QrPngRenderer}. Rode com {@code ./gradlew jmh}; o profiler de GC
+ * mostra a alocação por operação ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrPngRendererBenchmark {
+
+    private static final MatrixToImageConfig CONFIG = new MatrixToImageConfig(0xFF000000, 0xFFFFFFFF);
+
+    @Param({"https://example.com", "https://example.com/campanha?utm_source=email&utm_medium=qr&utm_campaign=black-friday-2024"})
+    public String text;
+
+    @Param({"150", "300", "1024", "4096"})
+    public int size;
+
+    private BitMatrix scaledMatrix;
+    private BitMatrix modules;
+    private QrPngRenderer renderer;
+
+    @Setup
+    public void setUp() throws Exception {
+        scaledMatrix = new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, size, size, Map.of(EncodeHintType.MARGIN, 1));
+        modules = new QrCodeEncoder().encode(text, Map.of());
+        renderer = new QrPngRenderer();
+    }
+
+    @Benchmark
+    public byte[] matrixToImageWriter() throws IOException {
+        final var outputStream = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(scaledMatrix, "PNG", outputStream, CONFIG);
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] qrPngRenderer() {
+        return renderer.render(modules, size, size, 1, 0xFF000000, 0xFFFFFFFF);
+    }
+}
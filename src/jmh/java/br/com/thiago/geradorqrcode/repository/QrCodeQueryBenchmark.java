@@ -0,0 +1,183 @@
+package br.com.thiago.geradorqrcode.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência das consultas do {@link QrCodeRepository} num Postgres embarcado com
+ * as migrações de {@code db/migration} aplicadas e {@code rows} linhas em {@code qr_code}. Com
+ * {@code indexed=false} os índices da V5 são removidos, para comparação.
+ * <p>
+ * A carga leva alguns minutos com 10M linhas; para uma rodada rápida use
+ * {@code -p rows=100000}. O Postgres embarcado não sobe como root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrCodeQueryBenchmark {
+
+    // Mesmo SQL do QrCodeRepository, com parâmetros JDBC
+    private static final String FIND_ID_BY_FILE_ID = "select q.id from qr_code q where q.file_id = ?";
+    private static final String FIND_ACTIVE_ID_BY_FILE_ID = "select q.id from qr_code q where q.file_id = ? and q.is_active = true";
+    private static final String FIND_EXPIRED_PAGE = "select q.id, q.file_id, q.expiration_date from qr_code q " +
+            "where q.is_active = true " +
+            "and q.expiration_date <= ? " +
+            "and (q.expiration_date, q.id) > (?, ?) " +
+            "order by q.expiration_date, q.id " +
+            "limit ?";
+
+    @Param({"10000000"})
+    private long rows;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private EmbeddedPostgres postgres;
+    private Connection connection;
+    private PreparedStatement findIdByFileId;
+    private PreparedStatement findActiveIdByFileId;
+    private PreparedStatement findExpiredPage;
+    private Timestamp cutoff;
+    private Timestamp middleCursorDate;
+    private long middleCursorId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        final var dataSource = postgres.getPostgresDatabase();
+        try (var setup = dataSource.getConnection(); var statement = setup.createStatement()) {
+            migrate(statement);
+            // Dois anos de vencimentos em torno de hoje; dos vencidos, só 1% ainda
+            // ativo, como um backlog que o job de expiração não alcançou
+            statement.execute("insert into qr_code (url, file_id, is_active, expiration_date, created_at) " +
+                    "select 'https://s.example/' || g, 'file-' || g, " +
+                    "       (now() - interval '365 days' + (g % 730) * interval '1 day' > now()) or g % 100 = 0, " +
+                    "       now() - interval '365 days' + (g % 730) * interval '1 day' + (g % 86400) * interval '1 second', " +
+                    "       now() - interval '400 days' " +
+                    "from generate_series(1, " + rows + ") g");
+            if (!indexed) {
+                statement.execute("drop index qr_code_file_id_uidx");
+                statement.execute("drop index qr_code_active_expiration_idx");
+            }
+            statement.execute("vacuum analyze qr_code");
+        }
+
+        connection = dataSource.getConnection();
+        findIdByFileId = connection.prepareStatement(FIND_ID_BY_FILE_ID);
+        findActiveIdByFileId = connection.prepareStatement(FIND_ACTIVE_ID_BY_FILE_ID);
+        findExpiredPage = connection.prepareStatement(FIND_EXPIRED_PAGE);
+        cutoff = Timestamp.valueOf(LocalDateTime.now());
+
+        try (var statement = connection.prepareStatement("select expiration_date, id from qr_code " +
+                "where is_active and expiration_date <= ? order by expiration_date, id " +
+                "offset (select count(*) / 2 from qr_code where is_active and expiration_date <= ?) limit 1")) {
+            statement.setTimestamp(1, cutoff);
+            statement.setTimestamp(2, cutoff);
+            try (var result = statement.executeQuery()) {
+                result.next();
+                middleCursorDate = result.getTimestamp(1);
+                middleCursorId = result.getLong(2);
+            }
+        }
+    }
+
+    /**
+     * Aplica os scripts de db/migration na ordem de versão. O Flyway não é usado
+     * aqui porque o jar do JMH perde o registro do plugin de Postgres dele. Um
+     * comando por vez: o "concurrently" da V5 não roda num bloco de vários.
+     */
+    private static void migrate(Statement statement) throws Exception {
+        final var scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+        Arrays.sort(scripts, Comparator.comparingInt(QrCodeQueryBenchmark::version));
+        for (Resource script : scripts) {
+            for (String command : script.getContentAsString(StandardCharsets.UTF_8).split(";\\s*\\n")) {
+                if (!command.isBlank()) {
+                    statement.execute(command);
+                }
+            }
+        }
+    }
+
+    private static int version(Resource script) {
+        final var name = script.getFilename();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public void findIdByFileId(Blackhole blackhole) throws SQLException {
+        findIdByFileId.setString(1, randomFileId());
+        drain(findIdByFileId, blackhole);
+    }
+
+    @Benchmark
+    public void findActiveIdByFileId(Blackhole blackhole) throws SQLException {
+        findActiveIdByFileId.setString(1, randomFileId());
+        drain(findActiveIdByFileId, blackhole);
+    }
+
+    @Benchmark
+    public void findExpiredFirstPage(Blackhole blackhole) throws SQLException {
+        findExpiredPage.setTimestamp(1, cutoff);
+        findExpiredPage.setTimestamp(2, Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0)));
+        findExpiredPage.setLong(3, 0L);
+        findExpiredPage.setInt(4, 500);
+        drain(findExpiredPage, blackhole);
+    }
+
+    @Benchmark
+    public void findExpiredMiddlePage(Blackhole blackhole) throws SQLException {
+        findExpiredPage.setTimestamp(1, cutoff);
+        findExpiredPage.setTimestamp(2, middleCursorDate);
+        findExpiredPage.setLong(3, middleCursorId);
+        findExpiredPage.setInt(4, 500);
+        drain(findExpiredPage, blackhole);
+    }
+
+    private String randomFileId() {
+        return "file-" + ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+
+    private static void drain(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (var result = statement.executeQuery()) {
+            while (result.next()) {
+                blackhole.consume(result.getLong(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.thiago.geradorqrcode.service;
+
+import br.com.thiago.geradorqrcode.barcode.AztecEncoder;
+import br.com.thiago.geradorqrcode.barcode.BarcodeEncoders;
+import br.com.thiago.geradorqrcode.barcode.Code128Encoder;
+import br.com.thiago.geradorqrcode.barcode.DataMatrixEncoder;
+import br.com.thiago.geradorqrcode.barcode.Ean13Encoder;
+import br.com.thiago.geradorqrcode.barcode.QrCodeEncoder;
+import br.com.thiago.geradorqrcode.cache.InFlightRenders;
+import br.com.thiago.geradorqrcode.cache.QrImageCache;
+import br.com.thiago.geradorqrcode.controller.dto.GenerateQRCodeRequest;
+import br.com.thiago.geradorqrcode.logo.LogoAsset;
+import br.com.thiago.geradorqrcode.logo.LogoStore;
+import br.com.thiago.geradorqrcode.observability.QrPipelineObservations;
+import br.com.thiago.geradorqrcode.render.Palette;
+import br.com.thiago.geradorqrcode.render.QrPngRenderer;
+import br.com.thiago.geradorqrcode.render.RenderScheduler;
+import com.google.zxing.WriterException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes do {@link QRCodeService}, montado sem Spring e sem os clientes
+ * externos: geração sem cache ({@code renderQRCode}) e com cache
+ * ({@code generateQRCode}), com e sem logo, além da composição do logo, da
+ * montagem do {@link RenderSpec} e do parse de cores isolados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QRCodeServiceBenchmark {
+
+    private static final String LOGO_PATH = "/benchmark-logo.png";
+
+    private static final String TEXT = "https://example.com/campanha?utm_source=email&utm_medium=qr";
+
+    private RenderScheduler renderScheduler;
+    private QRCodeService service;
+    private BufferedImage qrImage;
+    private LogoAsset logo;
+
+    @Setup
+    public void setUp() throws WriterException {
+        final var meterRegistry = new SimpleMeterRegistry();
+        renderScheduler = new RenderScheduler(1, 256, meterRegistry);
+        final var logoStore = new LogoStore(WebClient.builder(), renderScheduler, DataSize.ofMegabytes(1),
+                Duration.ofSeconds(5), Duration.ofHours(1), 16, DataSize.ofMegabytes(16));
+        final var qrPngRenderer = new QrPngRenderer();
+        service = new QRCodeService(null, null, null, new QrImageCache(64L << 20, 0, meterRegistry),
+                new InFlightRenders(meterRegistry),
+                qrPngRenderer, renderScheduler, logoStore, List.of(),
+                new BarcodeEncoders(List.of(new QrCodeEncoder(), new DataMatrixEncoder(), new AztecEncoder(),
+                        new Code128Encoder(), new Ean13Encoder())),
+                null,
+                new QrPipelineObservations(ObservationRegistry.NOOP, meterRegistry));
+        setField("maxSize", 4096);
+
+        logo = logoStore.load(LOGO_PATH).block();
+        final var modules = new QrCodeEncoder().encode(TEXT, Map.of());
+        qrImage = qrPngRenderer.renderImage(modules, 300, 300, 1, 0xFF000000, 0xFFFFFFFF);
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderScheduler.destroy();
+    }
+
+    @Benchmark
+    public byte[] renderQRCode(Requests requests) {
+        return service.renderQRCode(requests.request).block();
+    }
+
+    @Benchmark
+    public byte[] generateQRCodeCached(Requests requests) {
+        return service.generateQRCode(requests.request).block();
+    }
+
+    @Benchmark
+    public BufferedImage addLogoToQRCode() {
+        return service.addLogoToQRCode(qrImage, logo);
+    }
+
+    @Benchmark
+    public RenderSpec renderSpec(Requests requests) {
+        return service.renderSpec(requests.request).block();
+    }
+
+    @Benchmark
+    public int parseHexColor(Colors colors) {
+        return Palette.parseColor(colors.hexColor, "foreground_color");
+    }
+
+    @State(Scope.Benchmark)
+    public static class Requests {
+
+        @Param({"false", "true"})
+        public boolean withLogo;
+
+        private GenerateQRCodeRequest request;
+
+        @Setup
+        public void setUp() {
+            request = GenerateQRCodeRequest.builder()
+                    .text(TEXT)
+                    .logoPath(withLogo ? LOGO_PATH : null)
+                    .build();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Colors {
+
+        @Param({"0xFF000000", "FF336699", "#336699", "#369"})
+        public String hexColor;
+    }
+
+    private void setField(String name, Object value) {
+        final var field = ReflectionUtils.findField(QRCodeService.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, service, value);
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.thiago.geradorqrcode.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A aplicação rodando num processo próprio, a partir do boot jar, para que a
+ * heap e o GC medidos sejam só dela e não do gerador de carga. Os números da
+ * JVM vêm do actuator ({@code /actuator/metrics}).
+ */
+final class AppProcess implements AutoCloseable {
+
+    private final Process process;
+    private final int port;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AppProcess(Process process, int port) {
+        this.process = process;
+        this.port = port;
+        this.client = HttpClient.create().baseUrl(baseUrl()).responseTimeout(Duration.ofSeconds(5));
+    }
+
+    static AppProcess start(Path appJar, List<String> jvmArgs, List<String> appArgs, Path logFile) throws IOException {
+        final int port = freePort();
+        final var command = new ArrayList<String>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        // Roda no diretório do jar, com caminho relativo: é o classpath que o arquivo CDS guarda no treino
+        command.add("-jar");
+        command.add(appJar.getFileName().toString());
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+        final var process = new ProcessBuilder(command)
+                .directory(appJar.toAbsolutePath().getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        return new AppProcess(process, port);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + port;
+    }
+
+    void awaitHealthy(Duration maxWait) throws InterruptedException {
+        final long deadline = System.nanoTime() + maxWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            final var status = client.get().uri("/actuator/health")
+                    .responseSingle((response, body) -> body.asString().defaultIfEmpty(""))
+                    .onErrorReturn("")
+                    .block();
+            if (status != null && status.contains("\"UP\"")) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(500);
+        }
+        throw new IllegalStateException("Application not healthy after " + maxWait);
+    }
+
+    /**
+     * Soma de uma estatística ({@code COUNT}, {@code TOTAL_TIME}, {@code VALUE})
+     * de uma métrica do actuator, com filtro opcional de tag; NaN se não existir.
+     */
+    double metric(String name, String statistic, String tag) {
+        final var uri = "/actuator/metrics/" + name + (tag == null ? "" : "?tag=" + tag);
+        final var body = client.get().uri(uri)
+                .responseSingle((response, content) -> response.status().code() == 200 ? content.asString() : Mono.empty())
+                .onErrorResume(error -> Mono.empty())
+                .block();
+        if (body == null) {
+            return Double.NaN;
+        }
+        try {
+            for (JsonNode measurement : objectMapper.readTree(body).path("measurements")) {
+                if (statistic.equals(measurement.path("statistic").asText())) {
+                    return measurement.path("value").asDouble();
+                }
+            }
+        } catch (IOException e) {
+            return Double.NaN;
+        }
+        return Double.NaN;
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(20, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.thiago.geradorqrcode.loadtest;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap, CPU e GC da aplicação durante a janela medida: contadores lidos no
+ * início e no fim, e heap/CPU amostrados a cada segundo.
+ */
+final class JvmSampler implements AutoCloseable {
+
+    private static final String HEAP = "area:heap";
+
+    private final AppProcess app;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "loadtest-jvm-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile double maxHeapUsed;
+    private volatile double cpuSum;
+    private volatile int cpuSamples;
+    private double gcPausesAtStart;
+    private double gcPauseSecondsAtStart;
+    private double allocatedAtStart;
+
+    JvmSampler(AppProcess app) {
+        this.app = app;
+    }
+
+    void start() {
+        gcPausesAtStart = counter("jvm.gc.pause", "COUNT");
+        gcPauseSecondsAtStart = counter("jvm.gc.pause", "TOTAL_TIME");
+        allocatedAtStart = counter("jvm.gc.memory.allocated", "COUNT");
+        scheduler.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    private void sample() {
+        final var heapUsed = app.metric("jvm.memory.used", "VALUE", HEAP);
+        if (heapUsed > maxHeapUsed) {
+            maxHeapUsed = heapUsed;
+        }
+        final var cpu = app.metric("process.cpu.usage", "VALUE", null);
+        if (!Double.isNaN(cpu)) {
+            cpuSum += cpu;
+            cpuSamples++;
+        }
+    }
+
+    Result stop(double measuredSeconds) {
+        scheduler.shutdownNow();
+        final double mib = 1024 * 1024;
+        final var gcPauses = counter("jvm.gc.pause", "COUNT") - gcPausesAtStart;
+        final var gcPauseSeconds = counter("jvm.gc.pause", "TOTAL_TIME") - gcPauseSecondsAtStart;
+        final var allocated = counter("jvm.gc.memory.allocated", "COUNT") - allocatedAtStart;
+        return new Result(app.metric("jvm.memory.max", "VALUE", HEAP) / mib,
+                maxHeapUsed / mib,
+                allocated / mib / measuredSeconds,
+                (long) gcPauses,
+                gcPauseSeconds * 1000,
+                counter("jvm.gc.pause", "MAX") * 1000,
+                cpuSamples == 0 ? Double.NaN : cpuSum / cpuSamples);
+    }
+
+    /**
+     * Contadores de GC só aparecem no actuator depois da primeira coleta.
+     */
+    private double counter(String name, String statistic) {
+        final var value = app.metric(name, statistic, null);
+        return Double.isNaN(value) ? 0 : value;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    record Result(double heapMaxMib,
+                  double heapUsedPeakMib,
+                  double allocationRateMibPerSecond,
+                  long gcPauses,
+                  double gcPauseTotalMs,
+                  double gcPauseMaxMs,
+                  double processCpuAverage) {
+    }
+}
@@ -0,0 +1,208 @@
+package br.com.thiago.geradorqrcode.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Teste de carga autocontido: sobe um Postgres embarcado, o Drive e o
+ * encurtador falsos ({@link StubUpstreams}) e a aplicação num processo próprio,
+ * e então dispara {@code /qrcode/generate}, {@code /qrcode/generate-link},
+ * {@code /qrcode/download} e {@code /qrcode/decode} em malha aberta, nas taxas
+ * configuradas.
+ * <p>
+ * No fim imprime vazão, percentis de latência e heap/GC da aplicação, e grava
+ * o mesmo relatório em JSON. Não precisa de rede: roda com
+ * {@code gradle loadTest -Ploadtest.rate.generate=300 ...}. O Postgres
+ * embarcado não sobe como root.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var settings = LoadTestSettings.fromSystemProperties();
+        Files.createDirectories(settings.resultsFile().toAbsolutePath().getParent());
+        final var appLog = settings.resultsFile().resolveSibling("app.log");
+
+        try (var postgres = EmbeddedPostgres.builder().start();
+             var stubs = new StubUpstreams(settings.drive(), settings.shortener())) {
+            final var jdbcUrl = "jdbc:postgresql://localhost:" + postgres.getPort() + "/postgres";
+            final var appArgs = List.of(
+                    "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+                    "--spring.r2dbc.username=postgres",
+                    "--spring.r2dbc.password=postgres",
+                    "--spring.flyway.url=" + jdbcUrl,
+                    "--spring.flyway.user=postgres",
+                    "--spring.flyway.password=postgres",
+                    "--client.google-drive-api-service.url=" + stubs.driveUrl(),
+                    "--client.encurtador-url.url=" + stubs.shortenerUrl(),
+                    "--qrcode.short-url.engine=remote",
+                    // Toda a carga sai de um único IP; o limite por cliente distorceria a medição
+                    "--qrcode.rate-limit.enabled=false",
+                    "--management.endpoints.web.exposure.include=health,metrics");
+            System.out.printf("Starting application (%s), log in %s%n", String.join(" ", settings.appJvmArgs()), appLog);
+            try (var app = AppProcess.start(settings.appJar(), settings.appJvmArgs(), appArgs, appLog)) {
+                app.awaitHealthy(Duration.ofMinutes(2));
+                run(settings, app);
+            }
+        }
+    }
+
+    private static void run(LoadTestSettings settings, AppProcess app) throws Exception {
+        final var connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(settings.maxInFlight())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        final var client = HttpClient.create(connections).baseUrl(app.baseUrl());
+        final var scenarios = scenarios(settings, client);
+
+        System.out.printf("Warmup %s, measuring %s%n", settings.warmup(), settings.duration());
+        final long start = System.nanoTime();
+        final long measureFrom = start + settings.warmup().toNanos();
+        final long end = measureFrom + settings.duration().toNanos();
+        final var threads = scenarios.stream().map(scenario -> scenario.start(start, measureFrom, end)).toList();
+
+        try (var sampler = new JvmSampler(app)) {
+            Thread.sleep(settings.warmup().toMillis());
+            sampler.start();
+            for (var thread : threads) {
+                thread.join();
+            }
+            for (var scenario : scenarios) {
+                scenario.awaitInFlight(settings.requestTimeout());
+            }
+            final var seconds = settings.duration().toMillis() / 1000d;
+            final var results = scenarios.stream().map(scenario -> scenario.result(settings.duration())).toList();
+            final var jvm = sampler.stop(seconds);
+            print(results, jvm);
+            write(settings, results, jvm);
+        } finally {
+            connections.disposeLater().block(Duration.ofSeconds(5));
+        }
+    }
+
+    private static List<OpenLoopScenario> scenarios(LoadTestSettings settings, HttpClient client) {
+        final var scenarios = new ArrayList<OpenLoopScenario>();
+        if (settings.generateRate() > 0) {
+            scenarios.add(new OpenLoopScenario("generate", settings.generateRate(),
+                    () -> post(client, "/qrcode/generate", "image/png", requestBody(settings)),
+                    settings.maxInFlight(), settings.requestTimeout()));
+        }
+        if (settings.generateLinkRate() > 0) {
+            scenarios.add(new OpenLoopScenario("generate-link", settings.generateLinkRate(),
+                    () -> post(client, "/qrcode/generate-link", "application/json", requestBody(settings)),
+                    settings.maxInFlight(), settings.requestTimeout()));
+        }
+        if (settings.downloadRate() > 0) {
+            scenarios.add(new OpenLoopScenario("download", settings.downloadRate(),
+                    () -> get(client, "/qrcode/download?text=" + URLEncoder.encode(text(settings), StandardCharsets.UTF_8)),
+                    settings.maxInFlight(), settings.requestTimeout()));
+        }
+        if (settings.decodeRate() > 0) {
+            // A imagem lida é um PNG gerado pela própria aplicação antes da rodada
+            final var image = download(client, "/qrcode/download?text=" + URLEncoder.encode(text(settings), StandardCharsets.UTF_8));
+            scenarios.add(new OpenLoopScenario("decode", settings.decodeRate(),
+                    () -> postImage(client, "/qrcode/decode", image),
+                    settings.maxInFlight(), settings.requestTimeout()));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Textos sorteados de um conjunto de {@code distinct-texts} URLs, para o cache
+     * de imagens ter a taxa de acerto que teria em produção.
+     */
+    private static String text(LoadTestSettings settings) {
+        return "https://example.com/campanha/" + ThreadLocalRandom.current().nextInt(settings.distinctTexts());
+    }
+
+    private static String requestBody(LoadTestSettings settings) {
+        return "{\"text\":\"" + text(settings) + "\"}";
+    }
+
+    private static Mono<Integer> post(HttpClient client, String uri, String accept, String body) {
+        return client.headers(headers -> headers
+                        .set(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .set(HttpHeaderNames.ACCEPT, accept))
+                .post()
+                .uri(uri)
+                .send(ByteBufFlux.fromString(Mono.just(body)))
+                .responseSingle((response, content) -> content.then(Mono.just(response.status().code())));
+    }
+
+    private static Mono<Integer> postImage(HttpClient client, String uri, byte[] image) {
+        return client.headers(headers -> headers
+                        .set(HttpHeaderNames.CONTENT_TYPE, "image/png")
+                        .set(HttpHeaderNames.ACCEPT, "application/json"))
+                .post()
+                .uri(uri)
+                .send(ByteBufFlux.fromInbound(Mono.just(image)))
+                .responseSingle((response, content) -> content.then(Mono.just(response.status().code())));
+    }
+
+    private static byte[] download(HttpClient client, String uri) {
+        return client.get()
+                .uri(uri)
+                .responseSingle((response, content) -> content.asByteArray())
+                .block(Duration.ofSeconds(30));
+    }
+
+    private static Mono<Integer> get(HttpClient client, String uri) {
+        return client.get()
+                .uri(uri)
+                .responseSingle((response, content) -> content.then(Mono.just(response.status().code())));
+    }
+
+    private static void print(List<OpenLoopScenario.Result> results, JvmSampler.Result jvm) {
+        System.out.printf("%n%-14s %8s %9s %9s %8s %8s %9s %9s %9s %9s %9s%n", "scenario", "target/s", "sent", "ok",
+                "dropped", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (var result : results) {
+            System.out.printf("%-14s %8.1f %9d %9d %8d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", result.scenario(),
+                    result.targetRate(), result.sent(), result.succeeded(), result.dropped(), result.throughput(),
+                    result.p50Ms(), result.p90Ms(), result.p99Ms(), result.p999Ms(), result.maxMs());
+            if (!result.errors().isEmpty()) {
+                System.out.printf("%-14s errors %s%n", "", result.errors());
+            }
+        }
+        System.out.printf("%nheap max %.0f MiB, peak used %.0f MiB, allocation %.1f MiB/s%n",
+                jvm.heapMaxMib(), jvm.heapUsedPeakMib(), jvm.allocationRateMibPerSecond());
+        System.out.printf("gc pauses %d, total %.1f ms, max %.1f ms, process cpu %.0f%%%n",
+                jvm.gcPauses(), jvm.gcPauseTotalMs(), jvm.gcPauseMaxMs(), jvm.processCpuAverage() * 100);
+    }
+
+    private static void write(LoadTestSettings settings, List<OpenLoopScenario.Result> results, JvmSampler.Result jvm) throws Exception {
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("app_jvm_args", settings.appJvmArgs());
+        report.put("warmup_seconds", settings.warmup().toSeconds());
+        report.put("duration_seconds", settings.duration().toSeconds());
+        report.put("drive_stub", settings.drive());
+        report.put("shortener_stub", settings.shortener());
+        report.put("scenarios", results);
+        report.put("jvm", jvm);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .findAndRegisterModules()
+                .writeValue(settings.resultsFile().toFile(), report);
+        System.out.printf("%nReport written to %s%n", settings.resultsFile());
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.thiago.geradorqrcode.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parâmetros da rodada, lidos de propriedades de sistema {@code loadtest.*}
+ * (a task {@code loadTest} repassa as {@code -Ploadtest.*} do Gradle).
+ *
+ * @param rates       requisições por segundo de cada cenário; zero desliga o cenário
+ * @param appJvmArgs  opções da JVM da aplicação, para simular o tamanho do pod
+ * @param drive       latência e falhas do Drive falso
+ * @param shortener   latência e falhas do encurtador falso
+ */
+public record LoadTestSettings(Path appJar,
+                               Path resultsFile,
+                               List<String> appJvmArgs,
+                               Duration warmup,
+                               Duration duration,
+                               Duration requestTimeout,
+                               int maxInFlight,
+                               int distinctTexts,
+                               double generateRate,
+                               double generateLinkRate,
+                               double downloadRate,
+                               double decodeRate,
+                               StubSettings drive,
+                               StubSettings shortener) {
+
+    public record StubSettings(Duration latency, Duration jitter, double failureRate) {
+
+        static StubSettings of(String prefix, Duration latency) {
+            return new StubSettings(duration(prefix + ".latency", latency),
+                    duration(prefix + ".jitter", latency.dividedBy(4)),
+                    Double.parseDouble(property(prefix + ".failure-rate", "0")));
+        }
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Path.of(required("loadtest.app-jar")),
+                Path.of(property("loadtest.results-file", "build/results/loadtest/results.json")),
+                List.of(property("loadtest.app-jvm-args", "-Xmx512m -XX:ActiveProcessorCount=2").trim().split("\\s+")),
+                duration("loadtest.warmup", Duration.ofSeconds(15)),
+                duration("loadtest.duration", Duration.ofSeconds(60)),
+                duration("loadtest.request-timeout", Duration.ofSeconds(30)),
+                Integer.parseInt(property("loadtest.max-in-flight", "5000")),
+                Integer.parseInt(property("loadtest.distinct-texts", "10000")),
+                Double.parseDouble(property("loadtest.rate.generate", "200")),
+                Double.parseDouble(property("loadtest.rate.generate-link", "20")),
+                Double.parseDouble(property("loadtest.rate.download", "50")),
+                Double.parseDouble(property("loadtest.rate.decode", "10")),
+                StubSettings.of("loadtest.drive", Duration.ofMillis(300)),
+                StubSettings.of("loadtest.shortener", Duration.ofMillis(80)));
+    }
+
+    static String property(String name, String defaultValue) {
+        final var value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static String required(String name) {
+        final var value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing system property " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Aceita {@code 500ms}, {@code 30s}, {@code 2m} ou milissegundos sem unidade.
+     */
+    static Duration duration(String name, Duration defaultValue) {
+        final var value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        final var text = value.strip().toLowerCase(Locale.ROOT);
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofMillis(Long.parseLong(text));
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.thiago.geradorqrcode.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Um cenário em malha aberta: as requisições saem no ritmo fixo pedido, sem
+ * esperar as anteriores terminarem, e a latência é medida a partir do instante
+ * em que a requisição deveria ter saído. Assim uma pausa da aplicação aparece
+ * inteira nos percentis (sem coordinated omission).
+ * <p>
+ * Só entram na medição as requisições agendadas depois do aquecimento. Os
+ * percentis cobrem enviadas e descartadas: um descarte entra no histograma com
+ * o valor do timeout, o mínimo que o cliente teria esperado, senão o cenário
+ * pareceria mais rápido justamente quando a aplicação está mais atrasada.
+ */
+final class OpenLoopScenario {
+
+    private final String name;
+    private final double rate;
+    private final Supplier<Mono<Integer>> request;
+    private final int maxInFlight;
+    private final Duration timeout;
+    private final Recorder latencies = new Recorder(3);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    OpenLoopScenario(String name, double rate, Supplier<Mono<Integer>> request, int maxInFlight, Duration timeout) {
+        this.name = name;
+        this.rate = rate;
+        this.request = request;
+        this.maxInFlight = maxInFlight;
+        this.timeout = timeout;
+    }
+
+    String name() {
+        return name;
+    }
+
+    Thread start(long startNanos, long measureFromNanos, long endNanos) {
+        final var thread = new Thread(() -> {
+            for (long i = 0; ; i++) {
+                final long intended = startNanos + (long) (i * 1_000_000_000d / rate);
+                if (intended >= endNanos) {
+                    return;
+                }
+                final long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                fire(intended, intended >= measureFromNanos);
+            }
+        }, "loadtest-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void fire(long intended, boolean measured) {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            // Aplicação tão atrasada que o cliente não segura mais conexões: conta como descarte
+            inFlight.decrementAndGet();
+            if (measured) {
+                dropped.increment();
+                latencies.recordValue(timeout.toNanos() / 1000);
+            }
+            return;
+        }
+        if (measured) {
+            sent.increment();
+        }
+        Mono.defer(request)
+                .timeout(timeout)
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .subscribe(status -> {
+                    if (!measured) {
+                        return;
+                    }
+                    latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended));
+                    if (status >= 200 && status < 300) {
+                        succeeded.increment();
+                    } else {
+                        error("http_" + status);
+                    }
+                }, error -> {
+                    if (measured) {
+                        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended));
+                        error(error instanceof TimeoutException ? "timeout" : error.getClass().getSimpleName());
+                    }
+                });
+    }
+
+    private void error(String kind) {
+        errors.computeIfAbsent(kind, key -> new LongAdder()).increment();
+    }
+
+    void awaitInFlight(Duration maxWait) {
+        final long deadline = System.nanoTime() + maxWait.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    Result result(Duration measured) {
+        final Histogram histogram = latencies.getIntervalHistogram();
+        final var errorCounts = new TreeMap<String, Long>();
+        errors.forEach((kind, count) -> errorCounts.put(kind, count.sum()));
+        return new Result(name, rate, sent.sum(), succeeded.sum(), dropped.sum(), errorCounts,
+                succeeded.sum() / (measured.toMillis() / 1000d),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000d;
+    }
+
+    record Result(String scenario,
+                  double targetRate,
+                  long sent,
+                  long succeeded,
+                  long dropped,
+                  Map<String, Long> errors,
+                  double throughput,
+                  double p50Ms,
+                  double p90Ms,
+                  double p99Ms,
+                  double p999Ms,
+                  double maxMs) {
+    }
+}
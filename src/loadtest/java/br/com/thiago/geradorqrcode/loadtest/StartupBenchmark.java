@@ -0,0 +1,196 @@
+package br.com.thiago.geradorqrcode.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Mede o tempo até a aplicação servir o primeiro {@code /qrcode/generate} com
+ * sucesso, contado do disparo do processo: é o que importa quando um pod novo
+ * entra no meio de um pico. Compara o boot jar comum ({@code jar}), o jar
+ * extraído sem arquivo CDS ({@code extracted}) e o extraído com o arquivo
+ * gerado pela task {@code cdsArchive} ({@code cds}).
+ * <p>
+ * Todas as rodadas usam o mesmo Postgres embarcado; a primeira rodada de cada
+ * modo é descartada (migrações do Flyway, cache de páginas do disco). Roda com
+ * {@code gradle startupBenchmark -Pstartup.runs=10}.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var settings = Settings.fromSystemProperties();
+        Files.createDirectories(settings.resultsFile().toAbsolutePath().getParent());
+
+        try (var postgres = EmbeddedPostgres.builder().start()) {
+            final var jdbcUrl = "jdbc:postgresql://localhost:" + postgres.getPort() + "/postgres";
+            final var appArgs = List.of(
+                    "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+                    "--spring.r2dbc.username=postgres",
+                    "--spring.r2dbc.password=postgres",
+                    "--spring.flyway.url=" + jdbcUrl,
+                    "--spring.flyway.user=postgres",
+                    "--spring.flyway.password=postgres",
+                    "--qrcode.short-url.base-url=http://localhost:8080");
+            final var results = new ArrayList<Result>();
+            for (String mode : settings.modes()) {
+                results.add(run(settings, mode, appArgs));
+            }
+            print(results);
+            write(settings, results);
+        }
+    }
+
+    private static Result run(Settings settings, String mode, List<String> appArgs) throws Exception {
+        final Path jar;
+        final var jvmArgs = new ArrayList<>(settings.appJvmArgs());
+        switch (mode) {
+            case "jar" -> jar = settings.appJar();
+            case "extracted" -> jar = settings.cdsDirectory().resolve("app.jar");
+            case "cds" -> {
+                jar = settings.cdsDirectory().resolve("app.jar");
+                // Xshare:on: se o arquivo não servir (outra JVM, jar mudou), falha em vez de medir sem CDS
+                jvmArgs.add("-XX:SharedArchiveFile=" + settings.cdsDirectory().resolve("app.jsa").toAbsolutePath());
+                jvmArgs.add("-Xshare:on");
+            }
+            default -> throw new IllegalArgumentException("Unknown startup mode " + mode + " (jar, extracted, cds)");
+        }
+        final var firstGenerate = new double[settings.runs()];
+        final var started = new double[settings.runs()];
+        for (int run = -settings.warmupRuns(); run < settings.runs(); run++) {
+            final var log = settings.resultsFile().resolveSibling("startup-" + mode + ".log");
+            final long launched = System.nanoTime();
+            try (var app = AppProcess.start(jar, jvmArgs, appArgs, log)) {
+                awaitFirstGenerate(app, settings.timeout());
+                final double millis = (System.nanoTime() - launched) / 1_000_000d;
+                if (run >= 0) {
+                    firstGenerate[run] = millis;
+                    started[run] = processRunningMillis(log);
+                }
+                System.out.printf("%-10s run %3d: first generate after %8.0f ms%s%n", mode, run, millis, run < 0 ? " (warmup)" : "");
+            }
+        }
+        return new Result(mode, settings.runs(), Stats.of(firstGenerate), Stats.of(started));
+    }
+
+    private static void awaitFirstGenerate(AppProcess app, Duration maxWait) throws InterruptedException {
+        final var client = HttpClient.create().baseUrl(app.baseUrl()).responseTimeout(Duration.ofSeconds(5));
+        final long deadline = System.nanoTime() + maxWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            final var status = client.headers(headers -> headers
+                            .set(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                            .set(HttpHeaderNames.ACCEPT, "image/png"))
+                    .post()
+                    .uri("/qrcode/generate")
+                    .send(ByteBufFlux.fromString(Mono.just("{\"text\":\"https://example.com/startup\"}")))
+                    .responseSingle((response, content) -> content.then(Mono.just(response.status().code())))
+                    .onErrorReturn(0)
+                    .block();
+            if (status != null && status == 200) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        throw new IllegalStateException("No successful /qrcode/generate after " + maxWait);
+    }
+
+    /**
+     * O "process running for" do log do Spring Boot; NaN se a linha não aparecer.
+     */
+    private static double processRunningMillis(Path log) throws IOException {
+        try (Stream<String> lines = Files.lines(log)) {
+            return lines.map(STARTED::matcher)
+                    .filter(Matcher::find)
+                    .mapToDouble(matcher -> Double.parseDouble(matcher.group(2)) * 1000)
+                    .findFirst()
+                    .orElse(Double.NaN);
+        }
+    }
+
+    private static void print(List<Result> results) {
+        System.out.printf("%n%-10s %5s %22s %22s%n", "mode", "runs", "first generate ms", "jvm started ms");
+        System.out.printf("%-10s %5s %7s %7s %6s %7s %7s %6s%n", "", "", "min", "median", "max", "min", "median", "max");
+        for (var result : results) {
+            System.out.printf("%-10s %5d %7.0f %7.0f %6.0f %7.0f %7.0f %6.0f%n", result.mode(), result.runs(),
+                    result.firstGenerateMs().min(), result.firstGenerateMs().median(), result.firstGenerateMs().max(),
+                    result.startedMs().min(), result.startedMs().median(), result.startedMs().max());
+        }
+    }
+
+    private static void write(Settings settings, List<Result> results) throws IOException {
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("app_jvm_args", settings.appJvmArgs());
+        report.put("results", results);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .writeValue(settings.resultsFile().toFile(), report);
+        System.out.printf("%nReport written to %s%n", settings.resultsFile());
+    }
+
+    /**
+     * Parâmetros lidos de propriedades de sistema {@code startup.*} (a task
+     * {@code startupBenchmark} repassa as {@code -Pstartup.*} do Gradle).
+     *
+     * @param cdsDirectory saída da task {@code cdsArchive}: {@code app.jar}, {@code lib/} e {@code app.jsa}
+     */
+    record Settings(Path appJar,
+                    Path cdsDirectory,
+                    Path resultsFile,
+                    List<String> appJvmArgs,
+                    List<String> modes,
+                    int runs,
+                    int warmupRuns,
+                    Duration timeout) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Path.of(LoadTestSettings.property("startup.app-jar", "build/libs/geradorqrcode-0.0.1-SNAPSHOT.jar")),
+                    Path.of(LoadTestSettings.property("startup.cds-directory", "build/cds/app")),
+                    Path.of(LoadTestSettings.property("startup.results-file", "build/results/startup/results.json")),
+                    List.of(LoadTestSettings.property("startup.app-jvm-args", "-Xmx512m -XX:ActiveProcessorCount=2").trim().split("\\s+")),
+                    List.of(LoadTestSettings.property("startup.modes", "jar,extracted,cds").split(",")),
+                    Integer.parseInt(LoadTestSettings.property("startup.runs", "5")),
+                    Integer.parseInt(LoadTestSettings.property("startup.warmup-runs", "1")),
+                    LoadTestSettings.duration("startup.timeout", Duration.ofMinutes(2)));
+        }
+    }
+
+    record Stats(double min, double median, double max) {
+
+        static Stats of(double[] samples) {
+            final var sorted = samples.clone();
+            Arrays.sort(sorted);
+            final int middle = sorted.length / 2;
+            final double median = sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+            return new Stats(sorted[0], median, sorted[sorted.length - 1]);
+        }
+    }
+
+    record Result(String mode, int runs, Stats firstGenerateMs, Stats startedMs) {
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.thiago.geradorqrcode.loadtest;
+
+import br.com.thiago.geradorqrcode.loadtest.LoadTestSettings.StubSettings;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Drive e encurtador falsos, no mesmo contrato dos serviços do render.com, com
+ * latência (fixa + jitter uniforme) e uma fração de respostas 503 configuráveis.
+ */
+final class StubUpstreams implements AutoCloseable {
+
+    private final AtomicLong shortCodes = new AtomicLong();
+    private final DisposableServer drive;
+    private final DisposableServer shortener;
+
+    StubUpstreams(StubSettings driveSettings, StubSettings shortenerSettings) {
+        this.drive = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/v1/google-drive/upload", (request, response) -> request.receive().then()
+                                .then(reply(response, driveSettings, () -> {
+                                    final var fileId = UUID.randomUUID().toString();
+                                    return "{\"status_code\":200,\"message\":\"File uploaded\",\"url\":\"https://drive.local/file/"
+                                            + fileId + "\",\"file_id\":\"" + fileId + "\"}";
+                                }, "application/json")))
+                        .delete("/v1/google-drive/resources/{projectId}/delete/{fileId}",
+                                (request, response) -> reply(response, driveSettings, () -> "", "application/json")))
+                .bindNow();
+        this.shortener = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/shorten", (request, response) -> request.receive().then()
+                                .then(reply(response, shortenerSettings,
+                                        () -> "https://short.local/" + Long.toString(shortCodes.incrementAndGet(), 36), "text/plain"))))
+                .bindNow();
+    }
+
+    String driveUrl() {
+        return "http://127.0.0.1:" + drive.port();
+    }
+
+    String shortenerUrl() {
+        return "http://127.0.0.1:" + shortener.port();
+    }
+
+    private static Mono<Void> reply(HttpServerResponse response, StubSettings settings, Supplier<String> body, String contentType) {
+        final var random = ThreadLocalRandom.current();
+        final var delay = settings.latency().plusMillis(settings.jitter().isZero() ? 0 : random.nextLong(settings.jitter().toMillis() + 1));
+        if (random.nextDouble() < settings.failureRate()) {
+            return Mono.delay(delay).then(response.status(503).send());
+        }
+        return Mono.delay(delay).then(Mono.from(response.header(HttpHeaderNames.CONTENT_TYPE, contentType)
+                .sendString(Mono.fromSupplier(body))));
+    }
+
+    @Override
+    public void close() {
+        drive.disposeNow(Duration.ofSeconds(5));
+        shortener.disposeNow(Duration.ofSeconds(5));
+    }
+}
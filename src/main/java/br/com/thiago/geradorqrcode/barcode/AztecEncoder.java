@@ -0,0 +1,32 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.aztec.AztecWriter;
+import com.google.zxing.common.BitMatrix;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class AztecEncoder implements BarcodeEncoder {
+
+    private final AztecWriter writer = new AztecWriter();
+
+    @Override
+    public BarcodeFormat format() {
+        return BarcodeFormat.AZTEC;
+    }
+
+    @Override
+    public BitMatrix encode(String contents, Map<EncodeHintType, ?> hints) {
+        // Com tamanho 0 o writer devolve a matriz de módulos, sem escala
+        return writer.encode(contents, BarcodeFormat.AZTEC, 0, 0, hints);
+    }
+
+    @Override
+    public int defaultQuietZone() {
+        // Aztec dispensa zona de silêncio; um módulo só afasta da borda
+        return 1;
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import java.util.Map;
+
+/**
+ * Codificador de uma simbologia. Devolve só a matriz de módulos (um bit por
+ * módulo, sem zona de silêncio); escala, margem, cores e formato de saída ficam
+ * com os renderizadores, iguais para todas as simbologias.
+ * <p>
+ * As implementações são componentes sem estado, compartilhados entre threads.
+ */
+public interface BarcodeEncoder {
+
+    BarcodeFormat format();
+
+    BitMatrix encode(String contents, Map<EncodeHintType, ?> hints) throws WriterException;
+
+    /**
+     * Zona de silêncio, em módulos, quando o pedido não informa {@code margin}.
+     */
+    int defaultQuietZone();
+}
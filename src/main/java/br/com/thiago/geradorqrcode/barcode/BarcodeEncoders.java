@@ -0,0 +1,54 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import com.google.zxing.BarcodeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Os {@link BarcodeEncoder}s disponíveis, escolhidos pelo campo {@code format} do
+ * pedido ({@code qr_code}, {@code data_matrix}, {@code aztec}, ...). Sem
+ * {@code format}, o QR Code.
+ */
+@Component
+public class BarcodeEncoders {
+
+    private final Map<BarcodeFormat, BarcodeEncoder> encoders = new EnumMap<>(BarcodeFormat.class);
+    private final String supported;
+
+    public BarcodeEncoders(List<BarcodeEncoder> encoders) {
+        encoders.forEach(encoder -> this.encoders.put(encoder.format(), encoder));
+        this.supported = this.encoders.keySet().stream()
+                .map(format -> format.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(", "));
+    }
+
+    public BarcodeEncoder get(BarcodeFormat format) {
+        final var encoder = encoders.get(format);
+        if (encoder == null) {
+            throw new IllegalStateException("No encoder for " + format);
+        }
+        return encoder;
+    }
+
+    public BarcodeEncoder of(String format) {
+        if (format == null) {
+            return get(BarcodeFormat.QR_CODE);
+        }
+        try {
+            final var encoder = encoders.get(BarcodeFormat.valueOf(format.strip().replace('-', '_').toUpperCase(Locale.ROOT)));
+            if (encoder != null) {
+                return encoder;
+            }
+        } catch (IllegalArgumentException e) {
+            // cai no 400 abaixo
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be one of " + supported);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.oned.Code128Writer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class Code128Encoder extends LinearBarcodeEncoder {
+
+    public Code128Encoder() {
+        super(new Code128Writer(), BarcodeFormat.CODE_128, 0.25);
+    }
+
+    @Override
+    public int defaultQuietZone() {
+        return 10;
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.datamatrix.DataMatrixWriter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class DataMatrixEncoder implements BarcodeEncoder {
+
+    private final DataMatrixWriter writer = new DataMatrixWriter();
+
+    @Override
+    public BarcodeFormat format() {
+        return BarcodeFormat.DATA_MATRIX;
+    }
+
+    @Override
+    public BitMatrix encode(String contents, Map<EncodeHintType, ?> hints) {
+        // Com tamanho 0 o writer devolve a matriz de módulos, sem escala
+        return writer.encode(contents, BarcodeFormat.DATA_MATRIX, 0, 0, hints);
+    }
+
+    @Override
+    public int defaultQuietZone() {
+        return 1;
+    }
+}
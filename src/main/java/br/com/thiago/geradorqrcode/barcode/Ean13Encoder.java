@@ -0,0 +1,22 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.oned.EAN13Writer;
+import org.springframework.stereotype.Component;
+
+/**
+ * EAN-13: aceita 12 dígitos (o verificador é calculado) ou 13 com o verificador correto.
+ */
+@Component
+public class Ean13Encoder extends LinearBarcodeEncoder {
+
+    public Ean13Encoder() {
+        // Proporção nominal do símbolo: 37,29 x 25,93 mm
+        super(new EAN13Writer(), BarcodeFormat.EAN_13, 0.7);
+    }
+
+    @Override
+    public int defaultQuietZone() {
+        return 11;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.oned.OneDimensionalCodeWriter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Base dos códigos de barras lineares. O writer gera uma única linha de barras,
+ * que é repetida até a altura proporcional da simbologia; assim o símbolo passa
+ * pelos mesmos renderizadores dos códigos 2D, com módulos quadrados.
+ */
+abstract class LinearBarcodeEncoder implements BarcodeEncoder {
+
+    private final OneDimensionalCodeWriter writer;
+    private final BarcodeFormat format;
+    private final double heightRatio;
+
+    LinearBarcodeEncoder(OneDimensionalCodeWriter writer, BarcodeFormat format, double heightRatio) {
+        this.writer = writer;
+        this.format = format;
+        this.heightRatio = heightRatio;
+    }
+
+    @Override
+    public BarcodeFormat format() {
+        return format;
+    }
+
+    @Override
+    public BitMatrix encode(String contents, Map<EncodeHintType, ?> hints) throws WriterException {
+        final Map<EncodeHintType, Object> writerHints = new EnumMap<>(EncodeHintType.class);
+        writerHints.putAll(hints);
+        // A zona de silêncio é aplicada pelo renderizador, como nos códigos 2D
+        writerHints.put(EncodeHintType.MARGIN, 0);
+        final var bars = writer.encode(contents, format, 0, 0, writerHints).getRow(0, null);
+
+        final int width = bars.getSize();
+        final int height = Math.max(1, (int) Math.round(width * heightRatio));
+        final var modules = new BitMatrix(width, height);
+        for (int y = 0; y < height; y++) {
+            modules.setRow(y, bars);
+        }
+        return modules;
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * QR Code. Usa o {@link Encoder} direto, sem o {@code QRCodeWriter}, que escalaria
+ * a matriz só para ela ser reescalada pelo renderizador. Lê
+ * {@link EncodeHintType#ERROR_CORRECTION} (padrão L) e {@link EncodeHintType#QR_VERSION}.
+ */
+@Component
+public class QrCodeEncoder implements BarcodeEncoder {
+
+    @Override
+    public BarcodeFormat format() {
+        return BarcodeFormat.QR_CODE;
+    }
+
+    @Override
+    public BitMatrix encode(String contents, Map<EncodeHintType, ?> hints) throws WriterException {
+        final var errorCorrection = (ErrorCorrectionLevel) hints.get(EncodeHintType.ERROR_CORRECTION);
+        final var matrix = Encoder.encode(contents, errorCorrection == null ? ErrorCorrectionLevel.L : errorCorrection, hints)
+                .getMatrix();
+        final var modules = new BitMatrix(matrix.getWidth(), matrix.getHeight());
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                if (matrix.get(x, y) == 1) {
+                    modules.set(x, y);
+                }
+            }
+        }
+        return modules;
+    }
+
+    @Override
+    public int defaultQuietZone() {
+        return 1;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.thiago.geradorqrcode.batch;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumo do lote gravado como última entrada do ZIP. Apenas as falhas são
+ * listadas (até {@code maxReportedErrors}); os itens com sucesso estão no próprio arquivo.
+ */
+@Getter
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class BatchManifest {
+
+    private long total;
+    private long succeeded;
+    private long failed;
+    private final List<ItemError> errors = new ArrayList<>();
+    @JsonIgnore
+    private final int maxReportedErrors;
+
+    public BatchManifest(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void success() {
+        total++;
+        succeeded++;
+    }
+
+    public void failure(long index, String text, String error) {
+        total++;
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new ItemError(index, text, error));
+        }
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record ItemError(long index, String text, String error) {
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.thiago.geradorqrcode.batch;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Escreve um ZIP de forma incremental: cada entrada é escrita num buffer pequeno
+ * e reaproveitado, que é entregue como {@link DataBuffer} e esvaziado em seguida.
+ * Os PNGs já são comprimidos, então as entradas vão sem compressão (STORED).
+ */
+public class BatchZipWriter implements AutoCloseable {
+
+    private final DataBufferFactory bufferFactory;
+    private final ByteArrayOutputStream sink = new ByteArrayOutputStream(64 * 1024);
+    private final ZipOutputStream zip = new ZipOutputStream(sink);
+    private final CRC32 crc = new CRC32();
+
+    public BatchZipWriter(DataBufferFactory bufferFactory) {
+        this.bufferFactory = bufferFactory;
+    }
+
+    public DataBuffer write(String name, byte[] content) {
+        try {
+            crc.reset();
+            crc.update(content);
+            final var entry = new ZipEntry(name);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+            zip.putNextEntry(entry);
+            zip.write(content);
+            zip.closeEntry();
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public DataBuffer finish() {
+        try {
+            zip.finish();
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private DataBuffer drain() {
+        final var buffer = bufferFactory.allocateBuffer(sink.size());
+        buffer.write(sink.toByteArray());
+        sink.reset();
+        return buffer;
+    }
+
+    @Override
+    public void close() {
+        try {
+            zip.close();
+        } catch (IOException ignored) {
+            // Nada a liberar além da memória do próprio sink
+        }
+    }
+}
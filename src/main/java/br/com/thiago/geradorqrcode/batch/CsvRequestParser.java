@@ -0,0 +1,65 @@
+package br.com.thiago.geradorqrcode.batch;
+
+import br.com.thiago.geradorqrcode.controller.dto.GenerateQRCodeRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converte uma linha CSV ({@code text,foreground_color,background_color,logo_path})
+ * em {@link GenerateQRCodeRequest}. Aceita campos entre aspas com {@code ""} como escape.
+ */
+public final class CsvRequestParser {
+
+    private CsvRequestParser() {
+    }
+
+    public static boolean isHeader(String line) {
+        return line.regionMatches(true, 0, "text", 0, 4) && (line.length() == 4 || line.charAt(4) == ',');
+    }
+
+    public static GenerateQRCodeRequest parse(String line) {
+        final var fields = split(line);
+        return GenerateQRCodeRequest.builder()
+                .text(field(fields, 0))
+                .foregroundColor(field(fields, 1))
+                .backgroundColor(field(fields, 2))
+                .logoPath(field(fields, 3))
+                .build();
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static List<String> split(String line) {
+        final var fields = new ArrayList<String>(4);
+        final var current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.thiago.geradorqrcode.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight das renderizações: pedidos simultâneos com a mesma
+ * {@link QrCacheKey} esperam pela mesma renderização em vez de repetir o encode
+ * e o PNG enquanto o cache ainda está frio.
+ * <p>
+ * A renderização roda desacoplada de quem pediu: um assinante que cancela só
+ * deixa de esperar, e os demais (e o cache) recebem o resultado normalmente.
+ * A chave sai do mapa antes de o resultado ser entregue, então um pedido que
+ * chega depois já encontra a imagem no cache.
+ */
+@Component
+public class InFlightRenders {
+
+    private final Map<QrCacheKey, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public InFlightRenders(MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("qrcode.render.coalescing")
+                .tag("role", "leader")
+                .description("Renders started because no identical render was in flight")
+                .register(meterRegistry);
+        this.followers = Counter.builder("qrcode.render.coalescing")
+                .tag("role", "follower")
+                .description("Requests served by joining an identical render already in flight")
+                .register(meterRegistry);
+        Gauge.builder("qrcode.render.in-flight", inFlight, Map::size)
+                .description("Distinct renders currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Assina a renderização em andamento para {@code key} ou, se não houver, inicia
+     * {@code render} e a compartilha com quem chegar enquanto ela não termina.
+     */
+    public Mono<byte[]> join(QrCacheKey key, Supplier<Mono<byte[]>> render) {
+        return Mono.deferContextual(context -> {
+            final var flight = new CompletableFuture<byte[]>();
+            final var existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                followers.increment();
+                return Mono.fromFuture(existing, true);
+            }
+            leaders.increment();
+            // O contexto de quem iniciou segue junto, para a renderização ficar no trace dele
+            Mono.defer(render)
+                    .contextWrite(context)
+                    .subscribe(image -> {
+                        inFlight.remove(key, flight);
+                        flight.complete(image);
+                    }, error -> {
+                        inFlight.remove(key, flight);
+                        flight.completeExceptionally(error);
+                    }, () -> {
+                        if (inFlight.remove(key, flight)) {
+                            flight.complete(null);
+                        }
+                    });
+            // suppressCancel: cancelar a espera não pode cancelar a renderização compartilhada
+            return Mono.fromFuture(flight, true);
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.thiago.geradorqrcode.cache;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Camada fria do cache: guarda as imagens expulsas do heap em buffers diretos,
+ * fora do alcance do GC, com limite em bytes e descarte LRU.
+ */
+class OffHeapImageStore {
+
+    private final long maxBytes;
+    private final Consumer<QrCacheKey> onEviction;
+    private final LinkedHashMap<QrCacheKey, ByteBuffer> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+
+    OffHeapImageStore(long maxBytes, Consumer<QrCacheKey> onEviction) {
+        this.maxBytes = maxBytes;
+        this.onEviction = onEviction;
+    }
+
+    synchronized void put(QrCacheKey key, byte[] image) {
+        if (image.length > maxBytes) {
+            return;
+        }
+        final var buffer = ByteBuffer.allocateDirect(image.length).put(image).flip();
+        final var previous = entries.put(key, buffer);
+        if (previous != null) {
+            usedBytes -= previous.capacity();
+        }
+        usedBytes += image.length;
+
+        final var iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            final Map.Entry<QrCacheKey, ByteBuffer> eldest = iterator.next();
+            usedBytes -= eldest.getValue().capacity();
+            iterator.remove();
+            onEviction.accept(eldest.getKey());
+        }
+    }
+
+    /**
+     * Remove a entrada e devolve uma cópia em heap, já que ela será promovida
+     * de volta para a camada quente.
+     */
+    synchronized byte[] take(QrCacheKey key) {
+        final var buffer = entries.remove(key);
+        if (buffer == null) {
+            return null;
+        }
+        usedBytes -= buffer.capacity();
+        final var image = new byte[buffer.remaining()];
+        buffer.duplicate().get(image);
+        return image;
+    }
+
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.thiago.geradorqrcode.cache;
+
+import br.com.thiago.geradorqrcode.render.OutputFormat;
+import com.google.zxing.BarcodeFormat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Chave de conteúdo de uma imagem renderizada: hash dos parâmetros já
+ * normalizados (cores como ARGB, logo sem espaços e o hash do conteúdo dele,
+ * simbologia, formato, tamanho e opções do QR Code). A mesma chave sempre gera os
+ * mesmos bytes, por isso ela também serve como ETag; um logo trocado no mesmo
+ * caminho muda a chave.
+ */
+public record QrCacheKey(String hash) {
+
+    public static QrCacheKey of(String text, int foreground, int background, String logoPath, String logoDigest, BarcodeFormat symbology,
+                                OutputFormat format, int size, int margin, int errorCorrection, int version) {
+        final var digest = sha256();
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update((byte) symbology.ordinal());
+        digest.update((byte) format.ordinal());
+        digest.update((byte) errorCorrection);
+        digest.update((byte) version);
+        digest.update(intToBytes(size));
+        digest.update(intToBytes(margin));
+        digest.update(intToBytes(foreground));
+        digest.update(intToBytes(background));
+        if (logoPath != null) {
+            digest.update(logoPath.strip().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        if (logoDigest != null) {
+            digest.update(logoDigest.getBytes(StandardCharsets.UTF_8));
+        }
+        // 128 bits são suficientes para evitar colisões e deixam o ETag curto
+        return new QrCacheKey(HexFormat.of().formatHex(digest.digest(), 0, 16));
+    }
+
+    public String etag() {
+        return "\"" + hash + "\"";
+    }
+
+    /**
+     * Só compara com ETags de verdade: {@code *} ("qualquer representação") não
+     * prova que o cliente já tem esta imagem, e um 304 pularia até o {@code verify}.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            final var tag = candidate.strip();
+            if (tag.equals(etag()) || tag.equals("W/" + etag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] intToBytes(int value) {
+        return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
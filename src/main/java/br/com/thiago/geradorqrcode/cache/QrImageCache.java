@@ -0,0 +1,92 @@
+package br.com.thiago.geradorqrcode.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache das imagens já renderizadas, endereçado por {@link QrCacheKey}.
+ * <p>
+ * A camada quente fica no heap, limitada pelo total de bytes das imagens. Com
+ * {@code qrcode.cache.off-heap-max-bytes} maior que zero, o que for expulso do
+ * heap desce para uma camada fria fora do heap e volta a subir quando acessado.
+ */
+@Component
+public class QrImageCache {
+
+    private final Cache<QrCacheKey, byte[]> heap;
+    private final OffHeapImageStore offHeap;
+    private final Counter heapHits;
+    private final Counter offHeapHits;
+    private final Counter misses;
+    private final Counter heapEvictions;
+    private final Counter offHeapEvictions;
+
+    public QrImageCache(@Value("${qrcode.cache.heap-max-bytes:67108864}") long heapMaxBytes,
+                        @Value("${qrcode.cache.off-heap-max-bytes:0}") long offHeapMaxBytes,
+                        MeterRegistry meterRegistry) {
+        this.heapHits = hitCounter(meterRegistry, "heap");
+        this.offHeapHits = hitCounter(meterRegistry, "off-heap");
+        this.misses = Counter.builder("qrcode.cache.misses").register(meterRegistry);
+        this.heapEvictions = evictionCounter(meterRegistry, "heap");
+        this.offHeapEvictions = evictionCounter(meterRegistry, "off-heap");
+        this.offHeap = offHeapMaxBytes > 0 ? new OffHeapImageStore(offHeapMaxBytes, key -> offHeapEvictions.increment()) : null;
+        this.heap = Caffeine.newBuilder()
+                .maximumWeight(heapMaxBytes)
+                .<QrCacheKey, byte[]>weigher((key, image) -> image.length)
+                .evictionListener((key, image, cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        heapEvictions.increment();
+                        if (offHeap != null && key != null && image != null) {
+                            offHeap.put(key, image);
+                        }
+                    }
+                })
+                .build();
+
+        Gauge.builder("qrcode.cache.bytes", heap,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .tag("tier", "heap")
+                .register(meterRegistry);
+        if (offHeap != null) {
+            Gauge.builder("qrcode.cache.bytes", offHeap, OffHeapImageStore::usedBytes)
+                    .tag("tier", "off-heap")
+                    .register(meterRegistry);
+        }
+    }
+
+    public byte[] get(QrCacheKey key) {
+        final var image = heap.getIfPresent(key);
+        if (image != null) {
+            heapHits.increment();
+            return image;
+        }
+        if (offHeap != null) {
+            final var cold = offHeap.take(key);
+            if (cold != null) {
+                offHeapHits.increment();
+                heap.put(key, cold);
+                return cold;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(QrCacheKey key, byte[] image) {
+        heap.put(key, image);
+    }
+
+    private static Counter hitCounter(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("qrcode.cache.hits").tag("tier", tier).register(meterRegistry);
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("qrcode.cache.evictions").tag("tier", tier).register(meterRegistry);
+    }
+}
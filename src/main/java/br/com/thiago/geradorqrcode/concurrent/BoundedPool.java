@@ -0,0 +1,80 @@
+package br.com.thiago.geradorqrcode.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de tamanho fixo com fila limitada, para trabalho bloqueante ou de CPU fora
+ * do event loop. Fila cheia rejeita a tarefa, e o cliente recebe 503 em vez de
+ * as requisições se acumularem na memória.
+ * <p>
+ * Threads {@code qr-<name>-N}, contador {@code qrcode.<name>.rejected} e gauge
+ * {@code qrcode.<name>.queue.depth}.
+ */
+public final class BoundedPool {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+    private final Counter rejected;
+
+    public BoundedPool(String name, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.name = name;
+        final var threadCount = new AtomicInteger();
+        this.rejected = Counter.builder("qrcode." + name + ".rejected")
+                .description("Tasks rejected because the " + name + " queue was full")
+                .register(meterRegistry);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final var thread = new Thread(runnable, "qr-" + name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException(name + " queue is full");
+                });
+        this.scheduler = Schedulers.fromExecutorService(executor, "qr-" + name);
+
+        Gauge.builder("qrcode." + name + ".queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Tasks waiting for a " + name + " worker")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> schedule(Callable<T> task) {
+        return Mono.fromCallable(task)
+                .subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class,
+                        error -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "QR Code " + name + " capacity exceeded", error));
+    }
+
+    public ThreadPoolExecutor executor() {
+        return executor;
+    }
+
+    public int poolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    public long rejectedCount() {
+        return (long) rejected.count();
+    }
+
+    public void dispose() {
+        scheduler.dispose();
+    }
+}
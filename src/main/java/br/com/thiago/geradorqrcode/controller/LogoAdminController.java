@@ -0,0 +1,56 @@
+package br.com.thiago.geradorqrcode.controller;
+
+import br.com.thiago.geradorqrcode.logo.LogoStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Administração do cache de logos; exige uma chave de {@code qrcode.admin.api-keys}
+ * (ver {@link br.com.thiago.geradorqrcode.ratelimit.AdminApiKeyFilter}).
+ */
+@RestController
+@RequestMapping("/admin/logos")
+@Tag(name = "Logo Admin", description = "Logo cache management")
+@RequiredArgsConstructor
+public class LogoAdminController {
+
+    private final LogoStore logoStore;
+
+    @PostMapping("/warm")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Warm logos", description = "Download and decode the given logos ahead of the first QR Code")
+    @ApiResponse(responseCode = "204", description = "Logos loaded")
+    public Mono<Void> warm(@RequestBody List<String> logoPaths) {
+        return Flux.fromIterable(logoPaths)
+                .flatMap(logoStore::load)
+                .then();
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Purge logos", description = "Remove one logo, or every logo when no path is given, from the cache")
+    @ApiResponse(responseCode = "204", description = "Logos removed")
+    public Mono<Void> purge(@RequestParam(required = false) String logoPath) {
+        return Mono.fromRunnable(() -> {
+            if (logoPath == null) {
+                logoStore.purgeAll();
+            } else {
+                logoStore.purge(logoPath);
+            }
+        });
+    }
+}
@@ -1,68 +1,261 @@
 package br.com.thiago.geradorqrcode.controller;
 
+import br.com.thiago.geradorqrcode.batch.CsvRequestParser;
+import br.com.thiago.geradorqrcode.controller.dto.DecodeQrCodeResponse;
 import br.com.thiago.geradorqrcode.controller.dto.GenerateQRCodeRequest;
-import br.com.thiago.geradorqrcode.controller.dto.GenerateQrCodeResponse;
+import br.com.thiago.geradorqrcode.controller.dto.PrintSheetRequest;
+import br.com.thiago.geradorqrcode.controller.dto.QrCodeJobResponse;
+import br.com.thiago.geradorqrcode.decode.BarcodeDecoder;
+import br.com.thiago.geradorqrcode.ratelimit.ItemRateLimiter;
+import br.com.thiago.geradorqrcode.render.OutputFormat;
+import br.com.thiago.geradorqrcode.service.PrintSheetService;
+import br.com.thiago.geradorqrcode.service.QRCodeBatchService;
 import br.com.thiago.geradorqrcode.service.QRCodeService;
+import br.com.thiago.geradorqrcode.service.QrCodeJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/qrcode")
 @Tag(name = "QR Code", description = "QR Code generation and download")
 @RequiredArgsConstructor
 public class QRCodeController {
 
+    private static final String APPLICATION_ZIP_VALUE = "application/zip";
+    private static final String IMAGE_SVG_VALUE = "image/svg+xml";
+    private static final String APPLICATION_EPS_VALUE = "application/postscript";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String SHORT_URL_HEADER = "X-Short-Url";
+    private static final String VERIFIED_HEADER = "X-Qr-Verified";
+    private static final List<MediaType> LINK_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.IMAGE_PNG, MediaType.MULTIPART_MIXED);
+
     private final QRCodeService qrCodeService;
+    private final QRCodeBatchService qrCodeBatchService;
+    private final PrintSheetService printSheetService;
+    private final QrCodeJobService qrCodeJobService;
+    private final BarcodeDecoder barcodeDecoder;
+    private final ItemRateLimiter itemRateLimiter;
+
+    @Value("${qrcode.cache.max-age:1d}")
+    private Duration cacheMaxAge;
 
     @GetMapping("/")
     public String home() {
         return "index";
     }
 
-    @PostMapping(value = "/generate", produces = MediaType.IMAGE_PNG_VALUE)
-    @Operation(summary = "Generate QR Code", description = "Generate a QR Code image based on the text provided")
+    @PostMapping(value = "/generate", produces = {MediaType.IMAGE_PNG_VALUE, IMAGE_SVG_VALUE, MediaType.APPLICATION_PDF_VALUE, APPLICATION_EPS_VALUE})
+    @Operation(summary = "Generate QR Code", description = "Generate a QR Code based on the text provided, as PNG (default), SVG, PDF or EPS according to output_format. "
+            + "With verify=true the PNG is decoded back and must read as the requested text")
     @ApiResponse(responseCode = "200", description = "QR Code image generated successfully")
-    public Mono<byte[]> generateQRCode(@RequestBody GenerateQRCodeRequest request) {
-        return qrCodeService.generateQRCode(request);
+    @ApiResponse(responseCode = "304", description = "QR Code image not modified since the ETag sent in If-None-Match")
+    @ApiResponse(responseCode = "422", description = "verify=true and the generated image does not read back as the requested text")
+    public Mono<ResponseEntity<DataBuffer>> generateQRCode(@RequestBody GenerateQRCodeRequest request,
+                                                           @RequestParam(defaultValue = "false") boolean verify,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                           ServerHttpResponse response) {
+        return qrCodeService.renderSpec(request)
+                .flatMap(spec -> {
+                    final var key = spec.key();
+                    final var cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic();
+                    if (key.matches(ifNoneMatch)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(key.etag())
+                                .cacheControl(cacheControl)
+                                .<DataBuffer>build());
+                    }
+                    return qrCodeService.generateQRCode(spec, verify, response.bufferFactory())
+                            .map(image -> {
+                                final var builder = ResponseEntity.ok()
+                                        .eTag(key.etag())
+                                        .cacheControl(cacheControl)
+                                        .contentType(spec.outputFormat().getMediaType());
+                                if (verify) {
+                                    builder.header(VERIFIED_HEADER, "true");
+                                }
+                                return builder.body(image);
+                            });
+                })
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
     }
 
-    @PostMapping(value = "/generate-link", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Generate QR Code Link", description = "Generate a QR Code image and upload it to Google Drive")
+    @PostMapping(value = "/generate-link", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.MULTIPART_MIXED_VALUE})
+    @Operation(summary = "Generate QR Code Link", description = "Generate a QR Code image and upload it to Google Drive. "
+            + "Accept: application/json (default) returns the PNG as a data URI; image/png returns the raw PNG with the short URL in "
+            + SHORT_URL_HEADER + "; multipart/mixed returns the url and the PNG as separate parts")
     @ApiResponse(responseCode = "200", description = "QR Code image uploaded successfully")
-    public Mono<GenerateQrCodeResponse> generateQRCodeLink(@RequestBody GenerateQRCodeRequest request) {
-        return qrCodeService.generateQRCodeLink(request);
+    public Mono<ResponseEntity<Object>> generateQRCodeLink(@RequestBody GenerateQRCodeRequest request,
+                                                           @RequestHeader HttpHeaders headers) {
+        final var mediaType = linkMediaType(headers.getAccept());
+        return qrCodeService.generateQRCodeLink(request)
+                .map(link -> {
+                    if (MediaType.IMAGE_PNG.equals(mediaType)) {
+                        return ResponseEntity.ok()
+                                .contentType(MediaType.IMAGE_PNG)
+                                .header(SHORT_URL_HEADER, link.getUrl())
+                                .body(link.getQrCode());
+                    }
+                    if (MediaType.MULTIPART_MIXED.equals(mediaType)) {
+                        final var parts = new MultipartBodyBuilder();
+                        parts.part("url", link.getUrl(), MediaType.TEXT_PLAIN);
+                        parts.part("qr_code", link.getQrCode(), MediaType.IMAGE_PNG).filename("qr-code.png");
+                        return ResponseEntity.ok()
+                                .contentType(MediaType.MULTIPART_MIXED)
+                                .header(SHORT_URL_HEADER, link.getUrl())
+                                .body(parts.build());
+                    }
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(link);
+                });
+    }
+
+    /**
+     * Primeiro tipo aceito, em ordem de qualidade, que o generate-link sabe
+     * produzir; JSON quando o cliente não pede nada específico.
+     */
+    private static MediaType linkMediaType(List<MediaType> accept) {
+        final var sorted = new ArrayList<>(accept);
+        MimeTypeUtils.sortBySpecificity(sorted);
+        sorted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (var accepted : sorted) {
+            for (var producible : LINK_MEDIA_TYPES) {
+                if (accepted.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    @PostMapping(value = "/generate-link", params = "async=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Generate QR Code Link asynchronously", description = "Queue the QR Code upload to Google Drive and return a job to poll at /qrcode/jobs/{jobId}")
+    @ApiResponse(responseCode = "202", description = "QR Code link job accepted")
+    public Mono<ResponseEntity<QrCodeJobResponse>> generateQRCodeLinkAsync(@RequestBody GenerateQRCodeRequest request) {
+        return qrCodeJobService.submit(request)
+                .map(job -> ResponseEntity.accepted()
+                        .location(URI.create("/qrcode/jobs/" + job.getJobId()))
+                        .body(job));
+    }
+
+    @GetMapping(value = "/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "QR Code link job status", description = "Return the job status and, once done, the same payload as /generate-link")
+    @ApiResponse(responseCode = "200", description = "Job found")
+    @ApiResponse(responseCode = "404", description = "Job not found")
+    public Mono<QrCodeJobResponse> getQRCodeLinkJob(@PathVariable UUID jobId) {
+        return qrCodeJobService.findJob(jobId);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = APPLICATION_ZIP_VALUE)
+    @Operation(summary = "Generate QR Code batch", description = "Generate one QR Code per NDJSON line and stream them back as a ZIP")
+    @ApiResponse(responseCode = "200", description = "ZIP streamed with one PNG per item and a manifest.json")
+    public ResponseEntity<Flux<DataBuffer>> generateBatch(@RequestBody Flux<GenerateQRCodeRequest> requests,
+                                                          ServerWebExchange exchange) {
+        return zipResponse(qrCodeBatchService.generateZip(requests, exchange.getResponse().bufferFactory(),
+                itemRateLimiter.batchItems(exchange)));
+    }
+
+    @PostMapping(value = "/batch", consumes = TEXT_CSV_VALUE, produces = APPLICATION_ZIP_VALUE)
+    @Operation(summary = "Generate QR Code batch from CSV", description = "Generate one QR Code per CSV line (text,foreground_color,background_color,logo_path)")
+    @ApiResponse(responseCode = "200", description = "ZIP streamed with one PNG per item and a manifest.json")
+    public ResponseEntity<Flux<DataBuffer>> generateBatchFromCsv(@RequestBody Flux<String> lines,
+                                                                 ServerWebExchange exchange) {
+        final var requests = lines
+                .filter(line -> !line.isBlank())
+                .index()
+                .filter(line -> line.getT1() > 0 || !CsvRequestParser.isHeader(line.getT2()))
+                .map(line -> CsvRequestParser.parse(line.getT2()));
+        return zipResponse(qrCodeBatchService.generateZip(requests, exchange.getResponse().bufferFactory(),
+                itemRateLimiter.batchItems(exchange)));
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> zipResponse(Flux<DataBuffer> zip) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"qr-codes.zip\"")
+                .contentType(MediaType.parseMediaType(APPLICATION_ZIP_VALUE))
+                .body(zip);
+    }
+
+    @PostMapping(value = "/sheet", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_PDF_VALUE, APPLICATION_ZIP_VALUE})
+    @Operation(summary = "Generate label sheet", description = "Lay one code per text out on a grid of labels and stream the pages as a PDF (or a ZIP of PNG pages)")
+    @ApiResponse(responseCode = "200", description = "Pages streamed as they are rendered")
+    @ApiResponse(responseCode = "400", description = "Invalid layout, or a text that cannot be encoded or does not fit its label")
+    public ResponseEntity<Flux<DataBuffer>> generateSheet(@RequestBody PrintSheetRequest request, ServerWebExchange exchange) {
+        final var sheet = printSheetService.render(request, exchange.getResponse().bufferFactory(),
+                itemRateLimiter.sheetLabels(exchange));
+        final var pdf = sheet.format() == OutputFormat.PDF;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + (pdf ? "labels.pdf" : "labels.zip") + "\"")
+                .contentType(pdf ? MediaType.APPLICATION_PDF : MediaType.parseMediaType(APPLICATION_ZIP_VALUE))
+                .body(sheet.content());
+    }
+
+    @PostMapping(value = "/decode", consumes = "image/*", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Decode QR Code", description = "Read the barcodes in the image sent as the request body; multiple=true returns every code found (batch sheets)")
+    @ApiResponse(responseCode = "200", description = "Barcodes found")
+    @ApiResponse(responseCode = "422", description = "No barcode found in the image")
+    public Mono<DecodeQrCodeResponse> decodeQRCode(@RequestBody Flux<DataBuffer> image,
+                                                   @RequestParam(defaultValue = "false") boolean multiple) {
+        return barcodeDecoder.decode(image, multiple).map(DecodeQrCodeResponse::new);
+    }
+
+    @PostMapping(value = "/decode", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Decode QR Code upload", description = "Same as /decode, with the image in the file part of a form upload")
+    @ApiResponse(responseCode = "200", description = "Barcodes found")
+    @ApiResponse(responseCode = "422", description = "No barcode found in the image")
+    public Mono<DecodeQrCodeResponse> decodeQRCodeUpload(@RequestPart("file") Mono<FilePart> file,
+                                                         @RequestParam(defaultValue = "false") boolean multiple) {
+        return file.flatMap(part -> barcodeDecoder.decode(part.content(), multiple)).map(DecodeQrCodeResponse::new);
     }
 
     @GetMapping("/download")
     @Operation(summary = "Download QR Code", description = "Download a QR Code image based on the text provided")
     @ApiResponse(responseCode = "200", description = "QR Code image downloaded successfully")
-    public Mono<ResponseEntity<FileSystemResource>> downloadQRCode(@RequestParam String text) {
-        return qrCodeService.generateQRCodeToFile(text, 300, 300)
-                .map(file -> {
-                    FileSystemResource resource = new FileSystemResource(file);
-
+    public Mono<ResponseEntity<byte[]>> downloadQRCode(@RequestParam String text) {
+        return qrCodeService.generateQRCodeImage(text, 300, 300)
+                .map(image -> {
                     HttpHeaders headers = new HttpHeaders();
                     headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"qr-code.png\"");
                     headers.setContentType(MediaType.IMAGE_PNG);
 
                     return ResponseEntity.ok()
                             .headers(headers)
-                            .contentLength(file.length())
-                            .body(resource);
+                            .contentLength(image.length)
+                            .body(image);
                 });
     }
 
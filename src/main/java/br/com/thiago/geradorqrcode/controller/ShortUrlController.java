@@ -0,0 +1,36 @@
+package br.com.thiago.geradorqrcode.controller;
+
+import br.com.thiago.geradorqrcode.shorturl.ShortUrlHitCounter;
+import br.com.thiago.geradorqrcode.shorturl.ShortUrlResolver;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Tag(name = "Short URL", description = "Redirects for the short links printed in the QR Codes")
+@RequiredArgsConstructor
+public class ShortUrlController {
+
+    private final ShortUrlResolver shortUrlResolver;
+    private final ShortUrlHitCounter shortUrlHitCounter;
+
+    @GetMapping("/r/{code}")
+    @Operation(summary = "Follow short link", description = "Redirect to the URL behind a short link code")
+    @ApiResponse(responseCode = "302", description = "Redirect to the target URL")
+    @ApiResponse(responseCode = "404", description = "Unknown short link code")
+    public Mono<ResponseEntity<Void>> redirect(@PathVariable String code) {
+        return shortUrlResolver.resolve(code)
+                .map(target -> {
+                    shortUrlHitCounter.increment(code);
+                    return ResponseEntity.status(HttpStatus.FOUND).location(target).<Void>build();
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
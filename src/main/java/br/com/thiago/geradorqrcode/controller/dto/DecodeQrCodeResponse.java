@@ -0,0 +1,24 @@
+package br.com.thiago.geradorqrcode.controller.dto;
+
+import br.com.thiago.geradorqrcode.decode.DecodedBarcode;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = false)
+@ToString
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@Schema(name = "DecodeQrCodeResponse", description = "Barcodes read from an uploaded image")
+public class DecodeQrCodeResponse {
+
+    private List<DecodedBarcode> codes;
+}
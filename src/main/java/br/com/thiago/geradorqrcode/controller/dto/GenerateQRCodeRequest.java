@@ -19,7 +19,13 @@ import lombok.*;
 public class GenerateQRCodeRequest {
 
     private String text;
+    private String format;
     private String foregroundColor;
     private String backgroundColor;
     private String logoPath;
+    private String outputFormat;
+    private Integer size;
+    private Integer margin;
+    private String errorCorrection;
+    private Integer qrVersion;
 }
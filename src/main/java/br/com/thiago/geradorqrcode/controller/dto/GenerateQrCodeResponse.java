@@ -3,14 +3,17 @@ package br.com.thiago.geradorqrcode.controller.dto;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
-import java.util.Base64;
-
+/**
+ * Resposta do generate-link. O PNG fica só em bytes; o data URI do JSON é
+ * escrito em streaming por {@link PngDataUriSerializer} na serialização.
+ */
 @Getter
 @Setter
 @EqualsAndHashCode(callSuper = false)
@@ -20,15 +23,14 @@ import java.util.Base64;
 @Schema(name = "GenerateQrCodeResponse", description = "Response to generate a QR Code")
 public class GenerateQrCodeResponse {
 
-    private String qrCode;
+    @ToString.Exclude
+    @JsonSerialize(using = PngDataUriSerializer.class)
+    @Schema(type = "string", description = "QR Code PNG as a data URI", example = "data:image/png;base64,iVBORw0KGgo...")
+    private byte[] qrCode;
     private String url;
 
     public GenerateQrCodeResponse(byte[] qrCode, String url) {
-        this.qrCode = Base64.getEncoder().encodeToString(qrCode);
+        this.qrCode = qrCode;
         this.url = url;
     }
-
-    public String getQrCode() {
-        return "data:image/png;base64," + qrCode;
-    }
 }
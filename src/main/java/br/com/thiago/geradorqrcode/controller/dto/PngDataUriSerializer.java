@@ -0,0 +1,75 @@
+package br.com.thiago.geradorqrcode.controller.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+
+/**
+ * Escreve um PNG como data URI ({@code data:image/png;base64,...}) direto no
+ * gerador do Jackson, em blocos, sem montar a String base64 nem a concatenação
+ * com o prefixo. O base64 e o prefixo não têm nada a escapar em JSON, então vão
+ * crus entre as aspas.
+ */
+public class PngDataUriSerializer extends StdSerializer<byte[]> {
+
+    static final String PREFIX = "data:image/png;base64,";
+
+    public PngDataUriSerializer() {
+        super(byte[].class);
+    }
+
+    @Override
+    public void serialize(byte[] image, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (generator instanceof TokenBuffer) {
+            // TokenBuffer (convertValue, valueToTree) não aceita writeRaw depois de um valor
+            generator.writeString(PREFIX + Base64.getEncoder().encodeToString(image));
+            return;
+        }
+        generator.writeRawValue("\"" + PREFIX);
+        try (var base64 = Base64.getEncoder().wrap(new RawCharsOutputStream(generator))) {
+            base64.write(image);
+        }
+        generator.writeRaw('"');
+    }
+
+    /**
+     * Repassa os bytes ASCII do base64 ao gerador como caracteres crus, reusando um buffer.
+     */
+    private static final class RawCharsOutputStream extends OutputStream {
+
+        private final JsonGenerator generator;
+        private final char[] chars = new char[4096];
+
+        RawCharsOutputStream(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            generator.writeRaw((char) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                final int count = Math.min(length, chars.length);
+                for (int i = 0; i < count; i++) {
+                    chars[i] = (char) bytes[offset + i];
+                }
+                generator.writeRaw(chars, 0, count);
+                offset += count;
+                length -= count;
+            }
+        }
+
+        @Override
+        public void close() {
+            // O gerador é do Jackson; fechar aqui encerraria a resposta inteira
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.thiago.geradorqrcode.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Folha de etiquetas: uma grade de {@code columns} x {@code rows} etiquetas por
+ * página, um código por texto. Medidas em milímetros; sem tamanho de etiqueta,
+ * a grade ocupa a página menos as margens, e sem margens a grade fica centrada.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = false)
+@ToString
+@Builder(toBuilder = true)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@Schema(name = "PrintSheetRequest", description = "Request to render label sheets")
+public class PrintSheetRequest {
+
+    @ToString.Exclude
+    private List<String> texts;
+    @Schema(description = "a4 (default) or letter")
+    private String page;
+    @Schema(description = "Raster resolution, 300 by default")
+    private Integer dpi;
+    private Integer columns;
+    private Integer rows;
+    private Double labelWidthMm;
+    private Double labelHeightMm;
+    private Double marginLeftMm;
+    private Double marginTopMm;
+    private Double columnGapMm;
+    private Double rowGapMm;
+    private String format;
+    private String errorCorrection;
+    @Schema(description = "Quiet zone in modules")
+    private Integer margin;
+    @Schema(description = "pdf (default, one multi-page PDF) or png (ZIP with one PNG per page)")
+    private String outputFormat;
+}
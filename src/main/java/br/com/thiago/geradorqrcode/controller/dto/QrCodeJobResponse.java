@@ -0,0 +1,31 @@
+package br.com.thiago.geradorqrcode.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = false)
+@ToString
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@Schema(name = "QrCodeJobResponse", description = "Status of an asynchronous QR Code link generation")
+public class QrCodeJobResponse {
+
+    private UUID jobId;
+    private String status;
+    private String stage;
+    private Integer attempts;
+    private String lastError;
+    private GenerateQrCodeResponse result;
+}
@@ -0,0 +1,179 @@
+package br.com.thiago.geradorqrcode.decode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.multi.GenericMultipleBarcodeReader;
+import com.google.zxing.multi.qrcode.QRCodeMultiReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lê códigos de barras de imagens: fotos enviadas para {@code /qrcode/decode} e
+ * os PNGs gerados aqui, na verificação.
+ * <p>
+ * A imagem é decodificada com subamostragem quando passa de
+ * {@code qrcode.decode.max-dimension}, o que limita memória e tempo das fotos
+ * de câmera sem perder os códigos, que costumam ocupar boa parte do quadro.
+ */
+@Component
+public class BarcodeDecoder {
+
+    private final DecodeScheduler decodeScheduler;
+    private final int maxBytes;
+    private final int maxDimension;
+    private final long maxPixels;
+    private final boolean tryHarder;
+
+    public BarcodeDecoder(DecodeScheduler decodeScheduler,
+                          @Value("${qrcode.decode.max-size:10MB}") DataSize maxSize,
+                          @Value("${qrcode.decode.max-dimension:4096}") int maxDimension,
+                          @Value("${qrcode.decode.max-pixels:50000000}") long maxPixels,
+                          @Value("${qrcode.decode.try-harder:true}") boolean tryHarder) {
+        this.decodeScheduler = decodeScheduler;
+        this.maxBytes = (int) maxSize.toBytes();
+        this.maxDimension = maxDimension;
+        this.maxPixels = maxPixels;
+        this.tryHarder = tryHarder;
+    }
+
+    /**
+     * Lê a imagem enviada; com {@code multiple}, todos os códigos dela (folhas de
+     * lote), senão o primeiro encontrado. Imagem sem código é 422.
+     */
+    public Mono<List<DecodedBarcode>> decode(Flux<DataBuffer> image, boolean multiple) {
+        return DataBufferUtils.join(image, maxBytes)
+                .onErrorMap(DataBufferLimitException.class,
+                        error -> new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Image exceeds " + maxBytes + " bytes", error))
+                .map(BarcodeDecoder::toBytes)
+                .filter(bytes -> bytes.length > 0)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Image is empty")))
+                .flatMap(bytes -> decodeScheduler.schedule(() -> decode(readImage(bytes), multiple, null)))
+                .flatMap(codes -> codes.isEmpty()
+                        ? Mono.error(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "No barcode found in the image"))
+                        : Mono.just(codes));
+    }
+
+    /**
+     * Conteúdo do primeiro código da simbologia esperada, ou vazio se a imagem
+     * não tiver nenhum legível. Sem {@code TRY_HARDER}: a verificação mede o que
+     * um leitor comum consegue ler.
+     */
+    public Mono<Optional<String>> read(byte[] image, BarcodeFormat format) {
+        return decodeScheduler.schedule(() -> decode(readImage(image), false, format).stream()
+                .findFirst()
+                .map(DecodedBarcode::text));
+    }
+
+    List<DecodedBarcode> decode(BufferedImage image, boolean multiple, BarcodeFormat format) {
+        LuminanceSource source = RasterLuminanceSource.of(image);
+        if (source == null) {
+            source = new BufferedImageLuminanceSource(image);
+        }
+        final var bitmap = new BinaryBitmap(new HybridBinarizer(source));
+        final Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        if (format != null) {
+            hints.put(DecodeHintType.POSSIBLE_FORMATS, EnumSet.of(format));
+        } else if (tryHarder) {
+            hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        }
+        try {
+            if (!multiple) {
+                return List.of(DecodedBarcode.of(new MultiFormatReader().decode(bitmap, hints)));
+            }
+            return toBarcodes(decodeMultiple(bitmap, hints, format));
+        } catch (ReaderException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Folhas de QR Codes saem inteiras numa passada do {@link QRCodeMultiReader},
+     * que procura todos os padrões de posição; só se ele não achar nada é que
+     * entra o {@link GenericMultipleBarcodeReader}, que recorta a imagem em volta
+     * de cada código achado e serve para qualquer simbologia.
+     */
+    private static Result[] decodeMultiple(BinaryBitmap bitmap, Map<DecodeHintType, Object> hints, BarcodeFormat format)
+            throws NotFoundException {
+        if (format == null || format == BarcodeFormat.QR_CODE) {
+            try {
+                return new QRCodeMultiReader().decodeMultiple(bitmap, hints);
+            } catch (NotFoundException e) {
+                if (format == BarcodeFormat.QR_CODE) {
+                    throw e;
+                }
+            }
+        }
+        return new GenericMultipleBarcodeReader(new MultiFormatReader()).decodeMultiple(bitmap, hints);
+    }
+
+    private static List<DecodedBarcode> toBarcodes(Result[] results) {
+        return Arrays.stream(results).map(DecodedBarcode::of).toList();
+    }
+
+    BufferedImage readImage(byte[] bytes) {
+        // MemoryCacheImageInputStream: o ImageIO.read(InputStream) faria cache em arquivo temporário
+        try (var input = new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes))) {
+            final var readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported image format");
+            }
+            final var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                final int width = reader.getWidth(0);
+                final int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Image exceeds " + maxPixels + " pixels");
+                }
+                final var param = reader.getDefaultReadParam();
+                final int subsampling = (Math.max(width, height) + maxDimension - 1) / maxDimension;
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Image cannot be read: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            final var bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
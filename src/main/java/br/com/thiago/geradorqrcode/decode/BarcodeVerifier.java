@@ -0,0 +1,103 @@
+package br.com.thiago.geradorqrcode.decode;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.zxing.BarcodeFormat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Confere se uma imagem gerada é lida de volta com o texto pedido, para pegar
+ * códigos que o logo, as cores ou o tamanho deixaram ilegíveis.
+ * <p>
+ * O resultado da leitura fica em cache pelo hash dos bytes da imagem: o cache de
+ * imagens devolve sempre os mesmos bytes para o mesmo pedido, então cada imagem
+ * é decodificada uma vez só, e leituras simultâneas da mesma imagem esperam
+ * pela mesma decodificação.
+ */
+@Component
+public class BarcodeVerifier {
+
+    private final BarcodeDecoder barcodeDecoder;
+    private final AsyncCache<String, Optional<String>> readings;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter matched;
+    private final Counter mismatched;
+    private final Counter unreadable;
+
+    public BarcodeVerifier(BarcodeDecoder barcodeDecoder,
+                           @Value("${qrcode.verify.cache-max-entries:10000}") long maxEntries,
+                           MeterRegistry meterRegistry) {
+        this.barcodeDecoder = barcodeDecoder;
+        this.readings = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .buildAsync();
+        this.cacheHits = Counter.builder("qrcode.verify.cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("qrcode.verify.cache").tag("result", "miss").register(meterRegistry);
+        this.matched = outcomeCounter(meterRegistry, "match");
+        this.mismatched = outcomeCounter(meterRegistry, "mismatch");
+        this.unreadable = outcomeCounter(meterRegistry, "unreadable");
+    }
+
+    /**
+     * Completa vazio se a imagem lê {@code expectedText}; senão 422.
+     */
+    public Mono<Void> verify(byte[] image, String expectedText, BarcodeFormat format) {
+        final var key = contentHash(image, format);
+        var reading = readings.getIfPresent(key);
+        if (reading != null) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+            reading = readings.get(key, (ignored, executor) -> barcodeDecoder.read(image, format).toFuture());
+        }
+        // suppressCancel: um assinante que cancela não pode derrubar a leitura dos demais
+        return Mono.fromFuture(reading, true)
+                .flatMap(text -> {
+                    if (text.isEmpty()) {
+                        unreadable.increment();
+                        return Mono.error(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                                "Generated " + format.name().toLowerCase(Locale.ROOT) + " could not be read back"));
+                    }
+                    if (!matches(expectedText, text.get(), format)) {
+                        mismatched.increment();
+                        return Mono.error(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                                "Generated " + format.name().toLowerCase(Locale.ROOT) + " reads back as different text"));
+                    }
+                    matched.increment();
+                    return Mono.empty();
+                });
+    }
+
+    private static boolean matches(String expected, String decoded, BarcodeFormat format) {
+        // EAN-13 pedido com 12 dígitos volta com o verificador calculado no fim
+        return decoded.equals(expected)
+                || (format == BarcodeFormat.EAN_13 && expected.length() == 12 && decoded.startsWith(expected));
+    }
+
+    private static String contentHash(byte[] image, BarcodeFormat format) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            digest.update((byte) format.ordinal());
+            return HexFormat.of().formatHex(digest.digest(image), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("qrcode.verify.outcome").tag("outcome", outcome).register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.thiago.geradorqrcode.decode;
+
+import br.com.thiago.geradorqrcode.concurrent.BoundedPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Pool da leitura de códigos (decodificação da imagem e detecção), separado do
+ * {@code RenderScheduler}: fotos enviadas para {@code /qrcode/decode} custam
+ * bem mais que uma renderização e não podem tomar os workers da geração. A fila
+ * é limitada e, cheia, vira 503 como na renderização.
+ */
+@Slf4j
+@Component
+public class DecodeScheduler implements DisposableBean {
+
+    private final BoundedPool pool;
+
+    public DecodeScheduler(@Value("${qrcode.decode.threads:0}") int threads,
+                           @Value("${qrcode.decode.queue-capacity:64}") int queueCapacity,
+                           MeterRegistry meterRegistry) {
+        // Metade dos processadores por padrão: o resto fica para a renderização
+        final int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.pool = new BoundedPool("decode", poolSize, queueCapacity, meterRegistry);
+        log.info("Decode scheduler started with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    public <T> Mono<T> schedule(Callable<T> task) {
+        return pool.schedule(task);
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.thiago.geradorqrcode.decode;
+
+import com.google.zxing.Result;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Um código lido de uma imagem: conteúdo, simbologia (nos mesmos nomes do campo
+ * {@code format} da geração) e os pontos de referência que o detector achou, em
+ * pixels da imagem decodificada.
+ */
+@Schema(name = "DecodedBarcode", description = "A barcode found in the image")
+public record DecodedBarcode(String text, String format, List<Point> points) {
+
+    static DecodedBarcode of(Result result) {
+        final var points = result.getResultPoints() == null ? List.<Point>of() : Arrays.stream(result.getResultPoints())
+                .filter(point -> point != null)
+                .map(point -> new Point(point.getX(), point.getY()))
+                .toList();
+        return new DecodedBarcode(result.getText(), result.getBarcodeFormat().name().toLowerCase(Locale.ROOT), points);
+    }
+
+    public record Point(float x, float y) {
+    }
+}
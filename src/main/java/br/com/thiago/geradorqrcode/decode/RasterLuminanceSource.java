@@ -0,0 +1,227 @@
+package br.com.thiago.geradorqrcode.decode;
+
+import com.google.zxing.LuminanceSource;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * {@link LuminanceSource} que calcula a luminância direto do array do raster,
+ * sem a cópia para uma imagem em tons de cinza que o
+ * {@code BufferedImageLuminanceSource} do ZXing faz antes de começar.
+ * <p>
+ * Cobre os layouts que o ImageIO devolve para PNG e JPEG (cinza, paleta,
+ * paleta empacotada de 1/2/4 bits, RGB/RGBA intercalado) e os rasters
+ * {@code int} RGB/ARGB do {@code QrPngRenderer}. Para o resto {@link #of}
+ * devolve {@code null} e quem chama usa o do ZXing. Pixels totalmente
+ * transparentes contam como branco, como no ZXing.
+ */
+final class RasterLuminanceSource extends LuminanceSource {
+
+    private final Pixels pixels;
+    private final int left;
+    private final int top;
+
+    private RasterLuminanceSource(Pixels pixels, int left, int top, int width, int height) {
+        super(width, height);
+        this.pixels = pixels;
+        this.left = left;
+        this.top = top;
+    }
+
+    static RasterLuminanceSource of(BufferedImage image) {
+        final var pixels = pixelsOf(image);
+        return pixels == null ? null : new RasterLuminanceSource(pixels, 0, 0, image.getWidth(), image.getHeight());
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        if (y < 0 || y >= getHeight()) {
+            throw new IllegalArgumentException("Requested row is outside the image: " + y);
+        }
+        final int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        pixels.read(left, top + y, width, row, 0);
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        final int width = getWidth();
+        final int height = getHeight();
+        // Cinza de 8 bits sem recorte: o próprio array do raster já é a matriz
+        if (left == 0 && top == 0 && pixels instanceof Gray gray && gray.isMatrix(width, height)) {
+            return gray.data;
+        }
+        final var matrix = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            pixels.read(left, top + y, width, matrix, y * width);
+        }
+        return matrix;
+    }
+
+    @Override
+    public boolean isCropSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        return new RasterLuminanceSource(pixels, this.left + left, this.top + top, width, height);
+    }
+
+    private static Pixels pixelsOf(BufferedImage image) {
+        final var raster = image.getRaster();
+        final var buffer = raster.getDataBuffer();
+        if (raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0 || buffer.getNumBanks() != 1) {
+            return null;
+        }
+        final var sampleModel = raster.getSampleModel();
+        final var colorModel = image.getColorModel();
+        if (colorModel.isAlphaPremultiplied()) {
+            return null;
+        }
+        if (buffer instanceof DataBufferInt ints
+                && sampleModel instanceof SinglePixelPackedSampleModel packed
+                && colorModel instanceof DirectColorModel direct
+                && direct.getRedMask() == 0xFF0000 && direct.getGreenMask() == 0xFF00 && direct.getBlueMask() == 0xFF
+                && (!direct.hasAlpha() || direct.getAlphaMask() == 0xFF000000)) {
+            return new PackedRgb(ints.getData(), ints.getOffset(), packed.getScanlineStride(), direct.hasAlpha());
+        }
+        if (!(buffer instanceof DataBufferByte bytes)) {
+            return null;
+        }
+        if (sampleModel instanceof MultiPixelPackedSampleModel packed && colorModel instanceof IndexColorModel palette) {
+            return new PackedIndexed(bytes.getData(), bytes.getOffset(), packed.getScanlineStride(),
+                    packed.getDataBitOffset(), packed.getPixelBitStride(), lookupTable(palette));
+        }
+        if (!(sampleModel instanceof ComponentSampleModel component)) {
+            return null;
+        }
+        final int[] offsets = component.getBandOffsets();
+        final int base = bytes.getOffset();
+        final int scanline = component.getScanlineStride();
+        final int pixelStride = component.getPixelStride();
+        if (offsets.length == 1 && colorModel instanceof IndexColorModel palette) {
+            return new Indexed(bytes.getData(), base + offsets[0], scanline, pixelStride, lookupTable(palette));
+        }
+        if (!(colorModel instanceof ComponentColorModel) || colorModel.getComponentSize(0) != 8) {
+            return null;
+        }
+        final var colorSpace = colorModel.getColorSpace();
+        if (offsets.length == 1 && colorSpace.getType() == ColorSpace.TYPE_GRAY) {
+            return new Gray(bytes.getData(), base + offsets[0], scanline, pixelStride);
+        }
+        if (colorSpace.isCS_sRGB() && (offsets.length == 3 || (offsets.length == 4 && colorModel.hasAlpha()))) {
+            return new InterleavedRgb(bytes.getData(), base, scanline, pixelStride,
+                    offsets[0], offsets[1], offsets[2], offsets.length == 4 ? offsets[3] : -1);
+        }
+        return null;
+    }
+
+    private static byte[] lookupTable(IndexColorModel palette) {
+        final var table = new byte[256];
+        for (int index = 0; index < table.length; index++) {
+            table[index] = index < palette.getMapSize() ? luminance(palette.getRGB(index)) : (byte) 0xFF;
+        }
+        return table;
+    }
+
+    private static byte luminance(int argb) {
+        if ((argb & 0xFF000000) == 0) {
+            return (byte) 0xFF;
+        }
+        return luminance((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF);
+    }
+
+    // Mesmos pesos (0,299/0,587/0,114 em ponto fixo) do BufferedImageLuminanceSource
+    private static byte luminance(int red, int green, int blue) {
+        return (byte) ((306 * red + 601 * green + 117 * blue + 0x200) >> 10);
+    }
+
+    private interface Pixels {
+
+        void read(int x, int y, int width, byte[] out, int offset);
+    }
+
+    private record Gray(byte[] data, int base, int scanline, int pixelStride) implements Pixels {
+
+        boolean isMatrix(int width, int height) {
+            return base == 0 && pixelStride == 1 && scanline == width && data.length == width * height;
+        }
+
+        @Override
+        public void read(int x, int y, int width, byte[] out, int offset) {
+            final int start = base + y * scanline + x * pixelStride;
+            if (pixelStride == 1) {
+                System.arraycopy(data, start, out, offset, width);
+                return;
+            }
+            for (int i = 0; i < width; i++) {
+                out[offset + i] = data[start + i * pixelStride];
+            }
+        }
+    }
+
+    private record Indexed(byte[] data, int base, int scanline, int pixelStride, byte[] table) implements Pixels {
+
+        @Override
+        public void read(int x, int y, int width, byte[] out, int offset) {
+            final int start = base + y * scanline + x * pixelStride;
+            for (int i = 0; i < width; i++) {
+                out[offset + i] = table[data[start + i * pixelStride] & 0xFF];
+            }
+        }
+    }
+
+    private record PackedIndexed(byte[] data, int base, int scanline, int bitOffset, int bitsPerPixel,
+                                 byte[] table) implements Pixels {
+
+        @Override
+        public void read(int x, int y, int width, byte[] out, int offset) {
+            final int row = base + y * scanline;
+            final int mask = (1 << bitsPerPixel) - 1;
+            int bit = bitOffset + x * bitsPerPixel;
+            for (int i = 0; i < width; i++, bit += bitsPerPixel) {
+                final int shift = 8 - bitsPerPixel - (bit & 7);
+                out[offset + i] = table[(data[row + (bit >> 3)] >> shift) & mask];
+            }
+        }
+    }
+
+    private record InterleavedRgb(byte[] data, int base, int scanline, int pixelStride,
+                                  int red, int green, int blue, int alpha) implements Pixels {
+
+        @Override
+        public void read(int x, int y, int width, byte[] out, int offset) {
+            int pixel = base + y * scanline + x * pixelStride;
+            for (int i = 0; i < width; i++, pixel += pixelStride) {
+                out[offset + i] = alpha >= 0 && data[pixel + alpha] == 0
+                        ? (byte) 0xFF
+                        : luminance(data[pixel + red] & 0xFF, data[pixel + green] & 0xFF, data[pixel + blue] & 0xFF);
+            }
+        }
+    }
+
+    private record PackedRgb(int[] data, int base, int scanline, boolean hasAlpha) implements Pixels {
+
+        @Override
+        public void read(int x, int y, int width, byte[] out, int offset) {
+            final int start = base + y * scanline + x;
+            for (int i = 0; i < width; i++) {
+                final int argb = data[start + i];
+                out[offset + i] = luminance(hasAlpha ? argb : argb | 0xFF000000);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.thiago.geradorqrcode.logo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import javax.imageio.ImageIO;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Logo já decodificado, com os "tiles" prontos para compor: círculo branco de
+ * fundo com o logo redimensionado e recortado em círculo, um por tamanho de QR Code.
+ * <p>
+ * Tiles e versões redimensionadas ficam no cache de derivados do {@link LogoStore},
+ * compartilhado por todos os logos e limitado em bytes: o tamanho vem do pedido
+ * (até 4096 px), então guardar todos sem limite deixaria a memória na mão do cliente.
+ */
+public class LogoAsset {
+
+    private final BufferedImage source;
+    private final String digest;
+    private final Cache<Rendition, Object> renditions;
+
+    LogoAsset(BufferedImage source, String digest, Cache<Rendition, Object> renditions) {
+        this.source = source;
+        this.digest = digest;
+        this.renditions = renditions;
+    }
+
+    /** SHA-256 dos bytes baixados; muda quando o arquivo no mesmo {@code logoPath} muda. */
+    public String digest() {
+        return digest;
+    }
+
+    public BufferedImage tile(int qrSize) {
+        return (BufferedImage) renditions.get(new Rendition(this, Kind.TILE, qrSize), key -> buildTile(qrSize));
+    }
+
+    /**
+     * Logo quadrado redimensionado, sem recorte; usado pelas saídas vetoriais, que
+     * recortam o círculo com o próprio formato. Não amplia além do original.
+     */
+    public BufferedImage scaled(int maxSize) {
+        final int size = Math.min(maxSize, Math.max(source.getWidth(), source.getHeight()));
+        return (BufferedImage) renditions.get(new Rendition(this, Kind.SCALED, size), key -> scale(source, size));
+    }
+
+    public byte[] scaledPng(int maxSize) {
+        // Fora do cálculo da entrada: o cache não aceita uma carga dentro de outra
+        final var image = scaled(maxSize);
+        return (byte[]) renditions.get(new Rendition(this, Kind.SCALED_PNG, maxSize), key -> {
+            try {
+                final var outputStream = new ByteArrayOutputStream();
+                ImageIO.write(image, "PNG", outputStream);
+                return outputStream.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /** Peso de um derivado no cache, em bytes aproximados. */
+    static int weigh(Rendition rendition, Object value) {
+        if (value instanceof BufferedImage image) {
+            return image.getWidth() * image.getHeight() * 4;
+        }
+        return ((byte[]) value).length;
+    }
+
+    private BufferedImage buildTile(int qrSize) {
+        final int circleSize = qrSize / 5; // O círculo terá 1/5 do tamanho do QR Code
+        final int logoSize = qrSize / 6;   // O logo terá 1/6 do tamanho do QR Code
+
+        // Logo circular: desenha a máscara suavizada e aplica o logo com SrcIn
+        final var circularLogo = new BufferedImage(logoSize, logoSize, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g2dLogo = circularLogo.createGraphics();
+        g2dLogo.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2dLogo.setColor(Color.WHITE);
+        g2dLogo.fillOval(0, 0, logoSize, logoSize);
+        g2dLogo.setComposite(AlphaComposite.SrcIn);
+        g2dLogo.drawImage(scale(source, logoSize), 0, 0, null);
+        g2dLogo.dispose();
+
+        final var tile = new BufferedImage(circleSize, circleSize, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g2dTile = tile.createGraphics();
+        g2dTile.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2dTile.setColor(Color.WHITE);
+        g2dTile.fillOval(0, 0, circleSize, circleSize);
+        final int offset = (circleSize - logoSize) / 2;
+        g2dTile.drawImage(circularLogo, offset, offset, null);
+        g2dTile.dispose();
+        return tile;
+    }
+
+    /**
+     * Reduz em passos de metade com interpolação bilinear e faz o ajuste final em
+     * bicúbica; mantém a qualidade do SCALE_SMOOTH sem o custo do getScaledInstance.
+     */
+    private static BufferedImage scale(BufferedImage image, int size) {
+        var current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        while (width / 2 >= size && height / 2 >= size) {
+            width /= 2;
+            height /= 2;
+            current = draw(current, width, height, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        return draw(current, size, size, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    }
+
+    private static BufferedImage draw(BufferedImage image, int width, int height, Object interpolation) {
+        final var scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g2d = scaled.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.drawImage(image, 0, 0, width, height, null);
+        g2d.dispose();
+        return scaled;
+    }
+
+    /** Chave no cache de derivados: o logo é comparado por identidade. */
+    record Rendition(LogoAsset logo, Kind kind, int size) {
+    }
+
+    enum Kind {
+        TILE, SCALED, SCALED_PNG
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.thiago.geradorqrcode.logo;
+
+import br.com.thiago.geradorqrcode.render.RenderScheduler;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Busca, decodifica e guarda os logos usados no centro dos QR Codes.
+ * <p>
+ * Cada {@code logoPath} é baixado uma única vez: requisições simultâneas para um
+ * logo novo esperam pela mesma carga. Os logos expiram após o TTL configurado e
+ * o cache descarta os menos usados quando atinge o limite de entradas. Os
+ * derivados (tiles por tamanho de QR Code) dividem um segundo cache, limitado
+ * em bytes por {@code qrcode.logo.rendition-cache-size}.
+ */
+@Slf4j
+@Component
+public class LogoStore {
+
+    private final WebClient webClient;
+    private final RenderScheduler renderScheduler;
+    private final AsyncCache<String, LogoAsset> logos;
+    private final Cache<LogoAsset.Rendition, Object> renditions;
+    private final int maxBytes;
+    private final Duration fetchTimeout;
+
+    public LogoStore(WebClient.Builder builder,
+                     RenderScheduler renderScheduler,
+                     @Value("${qrcode.logo.max-size:1MB}") DataSize maxSize,
+                     @Value("${qrcode.logo.fetch-timeout:5s}") Duration fetchTimeout,
+                     @Value("${qrcode.logo.ttl:1h}") Duration ttl,
+                     @Value("${qrcode.logo.max-entries:256}") long maxEntries,
+                     @Value("${qrcode.logo.rendition-cache-size:64MB}") DataSize renditionCacheSize) {
+        this.maxBytes = (int) maxSize.toBytes();
+        this.fetchTimeout = fetchTimeout;
+        this.renderScheduler = renderScheduler;
+        this.webClient = builder
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxBytes))
+                .build();
+        this.logos = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .buildAsync();
+        this.renditions = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .maximumWeight(renditionCacheSize.toBytes())
+                .weigher(LogoAsset::weigh)
+                .build();
+    }
+
+    public Mono<LogoAsset> load(String logoPath) {
+        // suppressCancel: um assinante que cancela não pode derrubar a carga dos demais
+        return Mono.fromFuture(logos.get(logoPath, (path, executor) -> fetch(path)
+                .flatMap(bytes -> renderScheduler.schedule(() -> decode(path, bytes)))
+                .toFuture()), true);
+    }
+
+    public void purge(String logoPath) {
+        final var logo = logos.synchronous().getIfPresent(logoPath);
+        logos.synchronous().invalidate(logoPath);
+        if (logo != null) {
+            renditions.asMap().keySet().removeIf(rendition -> rendition.logo() == logo);
+        }
+    }
+
+    public void purgeAll() {
+        logos.synchronous().invalidateAll();
+        renditions.invalidateAll();
+    }
+
+    private Mono<byte[]> fetch(String logoPath) {
+        log.info("Loading logo {}", logoPath);
+        // Verifica se o caminho do logo é uma URL ou um caminho local
+        if (logoPath.startsWith("http://") || logoPath.startsWith("https://")) {
+            // URI pronta, sem template: a URL do logo não vira tag uri do http.client.requests
+            return webClient.get()
+                    .uri(URI.create(logoPath))
+                    .retrieve()
+                    .bodyToMono(byte[].class)
+                    .timeout(fetchTimeout)
+                    .onErrorMap(DataBufferLimitException.class,
+                            error -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Logo exceeds " + maxBytes + " bytes: " + logoPath, error));
+        }
+        return Mono.fromCallable(() -> readResource(logoPath))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private byte[] readResource(String logoPath) throws IOException {
+        try (var inputStream = getClass().getResourceAsStream(logoPath)) {
+            if (inputStream == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Logo not found: " + logoPath);
+            }
+            final var bytes = inputStream.readNBytes(maxBytes + 1);
+            if (bytes.length > maxBytes) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Logo exceeds " + maxBytes + " bytes: " + logoPath);
+            }
+            return bytes;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private LogoAsset decode(String logoPath, byte[] bytes) throws IOException {
+        final var image = ImageIO.read(new ByteArrayInputStream(bytes));
+        if (image == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported logo format: " + logoPath);
+        }
+        return new LogoAsset(image, HexFormat.of().formatHex(sha256().digest(bytes)), renditions);
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.thiago.geradorqrcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = false)
+@ToString
+@Builder(toBuilder = true)
+@Table("job_lock")
+public class JobLock {
+
+    @Id
+    private String name;
+    private String owner;
+    private LocalDateTime lockedUntil;
+}
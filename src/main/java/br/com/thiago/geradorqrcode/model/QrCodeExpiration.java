@@ -0,0 +1,9 @@
+package br.com.thiago.geradorqrcode.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de {@code qr_code} com só o que o job de expiração precisa.
+ */
+public record QrCodeExpiration(Long id, String fileId, LocalDateTime expirationDate) {
+}
@@ -0,0 +1,106 @@
+package br.com.thiago.geradorqrcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Linha da outbox do generate-link assíncrono. Cada etapa concluída grava o seu
+ * resultado, então uma nova tentativa continua de onde parou.
+ * <p>
+ * O {@code version} é a posse do job: o claim o incrementa, então as gravações
+ * de um worker cujo lease venceu e foi retomado por outro falham. O
+ * {@code lockedUntil} só é escrito pelo claim e pela renovação do lease.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = false)
+@ToString
+@Builder(toBuilder = true)
+@Table("qr_code_job")
+public class QrCodeJob {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    public enum Stage { UPLOAD, SHORTEN, SAVE, DONE }
+
+    @Id
+    private Long id;
+    private UUID jobId;
+    private String text;
+    private Status status;
+    private Stage stage;
+    private Integer attempts;
+    private LocalDateTime nextAttemptAt;
+    @ReadOnlyProperty
+    private LocalDateTime lockedUntil;
+    private String lastError;
+    private String fileId;
+    private String driveUrl;
+    private String shortUrl;
+    private Long qrCodeId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    @Version
+    private Long version;
+
+    public static QrCodeJob pending(String text) {
+        final var now = LocalDateTime.now();
+        return QrCodeJob.builder()
+                .jobId(UUID.randomUUID())
+                .text(text)
+                .status(Status.PENDING)
+                .stage(Stage.UPLOAD)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    public QrCodeJob uploaded(String fileId, String driveUrl) {
+        this.fileId = fileId;
+        this.driveUrl = driveUrl;
+        return advanceTo(Stage.SHORTEN);
+    }
+
+    public QrCodeJob shortened(String shortUrl) {
+        this.shortUrl = shortUrl;
+        return advanceTo(Stage.SAVE);
+    }
+
+    public QrCodeJob done(Long qrCodeId) {
+        this.qrCodeId = qrCodeId;
+        this.status = Status.DONE;
+        this.lastError = null;
+        return advanceTo(Stage.DONE);
+    }
+
+    public QrCodeJob failed(String error, int maxAttempts, LocalDateTime nextAttemptAt) {
+        this.attempts = attempts + 1;
+        this.lastError = error;
+        this.status = attempts >= maxAttempts ? Status.FAILED : Status.PENDING;
+        this.nextAttemptAt = nextAttemptAt;
+        this.updatedAt = LocalDateTime.now();
+        return this;
+    }
+
+    private QrCodeJob advanceTo(Stage stage) {
+        this.stage = stage;
+        this.updatedAt = LocalDateTime.now();
+        return this;
+    }
+}
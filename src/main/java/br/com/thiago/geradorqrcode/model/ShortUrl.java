@@ -0,0 +1,31 @@
+package br.com.thiago.geradorqrcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = false)
+@ToString
+@Builder(toBuilder = true)
+@Table("short_url")
+public class ShortUrl {
+
+    @Id
+    private String code;
+    private String targetUrl;
+    private Long hits;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastHitAt;
+}
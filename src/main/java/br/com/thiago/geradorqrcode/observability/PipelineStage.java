@@ -0,0 +1,27 @@
+package br.com.thiago.geradorqrcode.observability;
+
+/**
+ * Etapas medidas do pipeline de geração; {@link #tag()} é o valor da tag
+ * {@code stage} nas métricas e o nome contextual dos spans.
+ */
+public enum PipelineStage {
+    ENCODE("encode"),
+    LOGO_FETCH("logo_fetch"),
+    COMPOSITE("composite"),
+    PNG_ENCODE("png_encode"),
+    VECTOR_ENCODE("vector_encode"),
+    DRIVE_UPLOAD("drive_upload"),
+    SHORTEN("shorten"),
+    DB_SAVE("db_save"),
+    VERIFY("verify");
+
+    private final String tag;
+
+    PipelineStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.thiago.geradorqrcode.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Locale;
+
+/**
+ * Métricas e spans do pipeline de geração.
+ * <p>
+ * Cada operação ponta a ponta vira uma observação {@code qrcode.operation} e cada
+ * etapa uma {@code qrcode.stage}, filha da observação corrente: um timer com
+ * histograma por etapa e um span quando a amostragem de tracing pega a requisição.
+ * As tags são fechadas ({@code operation}, {@code stage}, {@code outcome} e a
+ * classe do erro), nunca texto, URL ou id vindos do pedido.
+ */
+@Component
+public class QrPipelineObservations {
+
+    static final String OPERATION = "qrcode.operation";
+    static final String STAGE = "qrcode.stage";
+    static final String OUTPUT_BYTES = "qrcode.output.bytes";
+    static final String OUTCOME = "outcome";
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public QrPipelineObservations(ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Observa uma operação inteira ({@code generate}, {@code generate_link} etc.);
+     * as etapas assinadas dentro dela viram spans filhos.
+     */
+    public <T> Mono<T> operation(String operation, Mono<T> source) {
+        return observe(OPERATION, "operation", operation, source);
+    }
+
+    public <T> Mono<T> stage(PipelineStage stage, Mono<T> source) {
+        return observe(STAGE, "stage", stage.tag(), source);
+    }
+
+    /**
+     * Etapa síncrona, rodando no pool de renderização; a observação pai vem da
+     * propagação de contexto do Reactor para a thread.
+     */
+    public <T, E extends Throwable> T stage(PipelineStage stage, Observation.CheckedCallable<T, E> callable) throws E {
+        final var observation = Observation.createNotStarted(STAGE, observationRegistry)
+                .contextualName(stage.tag())
+                .lowCardinalityKeyValue("stage", stage.tag())
+                .start();
+        try (var scope = observation.openScope()) {
+            final T result = callable.call();
+            observation.lowCardinalityKeyValue(OUTCOME, "success");
+            return result;
+        } catch (Throwable error) {
+            fail(observation, error);
+            throw error;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Distribuição do tamanho das imagens entregues, por formato de saída e simbologia.
+     */
+    public void recordOutput(String format, String symbology, long bytes) {
+        DistributionSummary.builder(OUTPUT_BYTES)
+                .baseUnit("bytes")
+                .tag("format", format.toLowerCase(Locale.ROOT))
+                .tag("symbology", symbology.toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    private <T> Mono<T> observe(String name, String key, String value, Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            final var observation = Observation.createNotStarted(name, observationRegistry)
+                    .contextualName(value)
+                    .lowCardinalityKeyValue(key, value)
+                    .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY,
+                            observationRegistry.getCurrentObservation()))
+                    .start();
+            return source
+                    .doOnSuccess(result -> observation.lowCardinalityKeyValue(OUTCOME, "success"))
+                    .doOnError(error -> fail(observation, error))
+                    .doOnCancel(() -> observation.lowCardinalityKeyValue(OUTCOME, "cancelled"))
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(Context.of(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    private static void fail(Observation observation, Throwable error) {
+        // 4xx é erro do cliente (texto inválido, tamanho fora do limite); o resto é nosso ou do upstream
+        final var clientError = error instanceof ResponseStatusException status && status.getStatusCode().is4xxClientError();
+        observation.lowCardinalityKeyValue(OUTCOME, clientError ? "client_error" : "server_error");
+        observation.error(error);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Set;
+
+/**
+ * Restringe {@code /admin/**} aos clientes com uma das chaves de
+ * {@code qrcode.admin.api-keys}, no cabeçalho {@code qrcode.admin.api-key-header}.
+ * São chaves próprias: as de {@code qrcode.rate-limit.api-keys} identificam
+ * integrações e não dão acesso à administração. Sem chaves configuradas as
+ * rotas de administração ficam fechadas para todos.
+ * <p>
+ * O caminho é comparado como no roteamento, já decodificado e sem os
+ * {@code ;parâmetros} de cada segmento: {@code /%61dmin/...} ou
+ * {@code /admin;x=1/...} chegam ao mesmo controller e não podem escapar da chave.
+ */
+@Component
+public class AdminApiKeyFilter implements WebFilter, Ordered {
+
+    private static final PathPattern ADMIN = PathPatternParser.defaultInstance.parse("/admin/**");
+
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+
+    public AdminApiKeyFilter(@Value("${qrcode.admin.api-key-header:X-Admin-Key}") String apiKeyHeader,
+                             @Value("${qrcode.admin.api-keys:}") Set<String> apiKeys) {
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = apiKeys;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!ADMIN.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        if (apiKeys.isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin endpoints require qrcode.admin.api-keys"));
+        }
+        final var apiKey = exchange.getRequest().getHeaders().getFirst(apiKeyHeader);
+        if (apiKey == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, apiKeyHeader + " header is required"));
+        }
+        if (!isConfigured(apiKey)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid API key"));
+        }
+        return chain.filter(exchange);
+    }
+
+    private boolean isConfigured(String apiKey) {
+        final var candidate = apiKey.getBytes(StandardCharsets.UTF_8);
+        boolean found = false;
+        for (var key : apiKeys) {
+            // Comparação em tempo constante, sem parar na primeira chave que bate
+            found |= MessageDigest.isEqual(candidate, key.getBytes(StandardCharsets.UTF_8));
+        }
+        return found;
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Fichas cobradas por item dentro de um pedido que gera muitos códigos (lote,
+ * folha de etiquetas). O {@link Mono} só completa quando o balde do cliente
+ * tem fichas para os itens, então o fluxo desacelera até a taxa de reposição
+ * em vez de falhar no meio da resposta.
+ */
+@FunctionalInterface
+public interface ItemPermits {
+
+    ItemPermits UNLIMITED = items -> Mono.empty();
+
+    Mono<Void> acquire(int items);
+}
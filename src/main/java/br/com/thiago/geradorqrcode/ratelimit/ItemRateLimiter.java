@@ -0,0 +1,67 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cobra lotes e folhas por item renderizado, no mesmo balde que o
+ * {@link RateLimitFilter} usou para admitir o pedido. O filtro cobra só a
+ * entrada; sem isto um pedido de 20 mil itens custaria o mesmo que um de dez.
+ */
+@Component
+public class ItemRateLimiter {
+
+    private final RateLimitSettings settings;
+    private final RateLimiterBackend backend;
+    private final Counter batchThrottled;
+    private final Counter sheetThrottled;
+
+    public ItemRateLimiter(RateLimitSettings settings, RateLimiterBackend backend, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.backend = backend;
+        this.batchThrottled = throttledCounter(meterRegistry, "batch");
+        this.sheetThrottled = throttledCounter(meterRegistry, "sheet");
+    }
+
+    public ItemPermits batchItems(ServerWebExchange exchange) {
+        return permits(exchange, settings.batchItemCost(), batchThrottled);
+    }
+
+    public ItemPermits sheetLabels(ServerWebExchange exchange) {
+        return permits(exchange, settings.sheetLabelCost(), sheetThrottled);
+    }
+
+    private ItemPermits permits(ServerWebExchange exchange, int costPerItem, Counter throttled) {
+        final String client = exchange.getAttribute(RateLimitFilter.CLIENT_ATTRIBUTE);
+        if (client == null || costPerItem <= 0) {
+            // Limite desligado ou rota fora do filtro
+            return ItemPermits.UNLIMITED;
+        }
+        return items -> consume(client, (long) items * costPerItem, throttled);
+    }
+
+    private Mono<Void> consume(String client, long tokens, Counter throttled) {
+        if (tokens <= 0) {
+            return Mono.empty();
+        }
+        // Um custo acima da capacidade nunca caberia no balde: cobra em parcelas
+        final int chunk = (int) Math.min(tokens, Math.max(1, (long) settings.capacity()));
+        return backend.tryConsume(client, chunk)
+                .flatMap(wait -> {
+                    if (wait.isZero()) {
+                        return consume(client, tokens - chunk, throttled);
+                    }
+                    throttled.increment();
+                    return Mono.delay(wait).then(consume(client, tokens, throttled));
+                });
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("qrcode.rate-limit.throttled")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
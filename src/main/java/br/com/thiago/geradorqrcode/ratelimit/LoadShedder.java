@@ -0,0 +1,38 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import br.com.thiago.geradorqrcode.render.RenderScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Descarte adaptativo: quando a latência média de renderização passa do
+ * limite, uma fração das requisições que renderizam é recusada, proporcional ao
+ * excesso (o dobro do limite já descarta o máximo). Parte do tráfego sempre
+ * passa, para a média continuar medindo e o descarte parar quando o pool alivia.
+ */
+@Component
+public class LoadShedder {
+
+    private final RenderScheduler renderScheduler;
+    private final long thresholdNanos;
+    private final double maxShedRatio;
+
+    public LoadShedder(RenderScheduler renderScheduler, RateLimitSettings settings) {
+        this.renderScheduler = renderScheduler;
+        this.thresholdNanos = settings.shedLatencyThreshold().toNanos();
+        this.maxShedRatio = settings.maxShedRatio();
+    }
+
+    public boolean shouldShed() {
+        if (thresholdNanos <= 0) {
+            return false;
+        }
+        final long latency = renderScheduler.getLatencyEwma().toNanos();
+        if (latency <= thresholdNanos) {
+            return false;
+        }
+        final double ratio = Math.min(maxShedRatio, (double) (latency - thresholdNanos) / thresholdNanos);
+        return ThreadLocalRandom.current().nextDouble() < ratio;
+    }
+}
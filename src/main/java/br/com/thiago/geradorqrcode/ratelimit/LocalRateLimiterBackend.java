@@ -0,0 +1,37 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Baldes em memória, um por cliente, sem coordenação entre réplicas: com N
+ * réplicas atrás do balanceador o limite efetivo é até N vezes o configurado.
+ * Clientes parados por mais que um enchimento completo saem do cache.
+ */
+@Component
+@ConditionalOnProperty(name = "qrcode.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimiterBackend implements RateLimiterBackend {
+
+    private final RateLimitSettings settings;
+    private final Cache<String, TokenBucket> buckets;
+
+    public LocalRateLimiterBackend(RateLimitSettings settings) {
+        this.settings = settings;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(settings.maxClients())
+                .expireAfterAccess(settings.fullRefill())
+                .build();
+    }
+
+    @Override
+    public Mono<Duration> tryConsume(String client, int cost) {
+        final long now = System.nanoTime();
+        final var bucket = buckets.get(client, key -> new TokenBucket(settings.capacity(), settings.refillPerSecond(), now));
+        return Mono.just(Duration.ofNanos(bucket.tryConsume(cost, now)));
+    }
+}
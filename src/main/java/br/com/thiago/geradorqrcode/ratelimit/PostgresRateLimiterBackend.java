@@ -0,0 +1,72 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import br.com.thiago.geradorqrcode.repository.RateLimitBucketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Baldes compartilhados em {@code rate_limit_bucket}: o reabastecimento e o
+ * gasto acontecem num único upsert atômico, então o limite vale para o cluster
+ * inteiro. Custa uma ida ao banco por requisição.
+ * <p>
+ * Se o banco falha, a requisição passa: o limitador não pode derrubar o serviço.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "qrcode.rate-limit.backend", havingValue = "postgres")
+public class PostgresRateLimiterBackend implements RateLimiterBackend {
+
+    private final RateLimitBucketRepository rateLimitBucketRepository;
+    private final RateLimitSettings settings;
+    private final Counter failures;
+
+    public PostgresRateLimiterBackend(RateLimitBucketRepository rateLimitBucketRepository,
+                                      RateLimitSettings settings,
+                                      MeterRegistry meterRegistry) {
+        this.rateLimitBucketRepository = rateLimitBucketRepository;
+        this.settings = settings;
+        this.failures = Counter.builder("qrcode.rate-limit.backend.failures")
+                .description("Rate limit checks let through because the shared backend failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Duration> tryConsume(String client, int cost) {
+        return rateLimitBucketRepository.tryConsume(client, cost, settings.capacity(), settings.refillPerSecond())
+                .map(remaining -> Duration.ZERO)
+                // Sem linha de volta o balde não tinha fichas; o saldo exato não volta, então a espera é estimada pelo custo
+                .defaultIfEmpty(Duration.ofMillis((long) Math.ceil(cost / settings.refillPerSecond() * 1000)))
+                .onErrorResume(error -> {
+                    failures.increment();
+                    log.warn("Rate limit backend unavailable, letting request through: {}",
+                            NestedExceptionUtils.getMostSpecificCause(error).getMessage());
+                    return Mono.just(Duration.ZERO);
+                });
+    }
+
+    /**
+     * Remove baldes parados há mais que um enchimento completo, que já estariam cheios.
+     */
+    @Scheduled(fixedDelayString = "${qrcode.rate-limit.cleanup-interval-ms:600000}")
+    public Mono<Void> deleteIdleBuckets() {
+        return rateLimitBucketRepository.deleteIdle(settings.fullRefill().toSeconds() + 1)
+                .doOnNext(deleted -> {
+                    if (deleted > 0) {
+                        log.info("Deleted {} idle rate limit buckets", deleted);
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.warn("Could not delete idle rate limit buckets: {}", NestedExceptionUtils.getMostSpecificCause(error).getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
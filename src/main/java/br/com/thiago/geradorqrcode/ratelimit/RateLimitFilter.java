@@ -0,0 +1,206 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controle de admissão de {@code /qrcode/**}.
+ * <p>
+ * Primeiro o descarte adaptativo ({@link LoadShedder}) para as rotas que
+ * renderizam, com 503; depois o balde de fichas do cliente, com 429 e
+ * {@code Retry-After}. O cliente é a API key, quando é uma das configuradas,
+ * ou o IP de origem. Atrás de proxies ({@code trusted-proxies} maior que zero)
+ * o IP é o do {@code X-Forwarded-For} acrescentado pelo proxy mais externo,
+ * contando da direita: as entradas à esquerda dele vêm do cliente e podem ser
+ * qualquer coisa.
+ * Uma API key desconhecida não ganha balde próprio, senão bastaria trocar de
+ * chave a cada requisição para escapar do limite.
+ * <p>
+ * Rotas são reconhecidas por {@link PathPattern}, como no roteamento: com o
+ * caminho decodificado e sem {@code ;parâmetros}, {@code /qrcode;a/generate}
+ * paga o mesmo que {@code /qrcode/generate}.
+ */
+@Component
+public class RateLimitFilter implements WebFilter, Ordered {
+
+    /** Cliente do balde cobrado, para o {@link ItemRateLimiter} cobrar os itens no mesmo balde. */
+    static final String CLIENT_ATTRIBUTE = RateLimitFilter.class.getName() + ".client";
+
+    private static final PathPattern QRCODE = pattern("/qrcode/**");
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final RateLimitSettings settings;
+    private final RateLimiterBackend backend;
+    private final LoadShedder loadShedder;
+    private final Map<Route, Counter> rateLimited = new EnumMap<>(Route.class);
+    private final Map<Route, Counter> shed = new EnumMap<>(Route.class);
+
+    public RateLimitFilter(RateLimitSettings settings, RateLimiterBackend backend, LoadShedder loadShedder,
+                           MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.backend = backend;
+        this.loadShedder = loadShedder;
+        for (var route : Route.values()) {
+            rateLimited.put(route, rejectedCounter(meterRegistry, route, "rate_limited"));
+            shed.put(route, rejectedCounter(meterRegistry, route, "shed"));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // Antes do roteamento e da leitura do corpo, mas depois da observação HTTP do servidor
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final var path = exchange.getRequest().getPath().pathWithinApplication();
+        if (!settings.enabled() || !QRCODE.matches(path)) {
+            return chain.filter(exchange);
+        }
+        final var route = Route.of(exchange.getRequest().getMethod(), path);
+        if (route.renders && loadShedder.shouldShed()) {
+            shed.get(route).increment();
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server overloaded, retry later"));
+        }
+        final var client = clientKey(exchange);
+        return backend.tryConsume(client, cost(route))
+                .flatMap(wait -> {
+                    if (wait.isZero()) {
+                        exchange.getAttributes().put(CLIENT_ATTRIBUTE, client);
+                        return chain.filter(exchange);
+                    }
+                    rateLimited.get(route).increment();
+                    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(wait)));
+                    return Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded"));
+                });
+    }
+
+    private String clientKey(ServerWebExchange exchange) {
+        final var apiKey = exchange.getRequest().getHeaders().getFirst(settings.apiKeyHeader());
+        if (apiKey != null && settings.apiKeys().contains(apiKey)) {
+            // A chave em si não vai para memória nem para o banco, só um hash curto dela
+            return "key:" + HexFormat.of().formatHex(sha256().digest(apiKey.getBytes(StandardCharsets.UTF_8)), 0, 16);
+        }
+        if (settings.trustedProxies() > 0) {
+            final var forwarded = forwardedFor(exchange);
+            if (!forwarded.isEmpty()) {
+                return "ip:" + forwarded.get(Math.max(0, forwarded.size() - settings.trustedProxies()));
+            }
+        }
+        final var address = exchange.getRequest().getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return "ip:unknown";
+        }
+        return "ip:" + address.getAddress().getHostAddress();
+    }
+
+    private static List<String> forwardedFor(ServerWebExchange exchange) {
+        final var headers = exchange.getRequest().getHeaders().get(X_FORWARDED_FOR);
+        if (headers == null) {
+            return List.of();
+        }
+        // Várias linhas do cabeçalho equivalem a uma só separada por vírgulas, na ordem em que chegaram
+        final var hops = new ArrayList<String>();
+        for (var header : headers) {
+            for (var hop : header.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.strip());
+                }
+            }
+        }
+        return hops;
+    }
+
+    private int cost(Route route) {
+        return switch (route) {
+            case GENERATE -> settings.generateCost();
+            case GENERATE_LINK -> settings.generateLinkCost();
+            case DOWNLOAD -> settings.downloadCost();
+            case BATCH -> settings.batchCost();
+            case DECODE -> settings.decodeCost();
+            case SHEET -> settings.sheetCost();
+            case OTHER -> settings.defaultCost();
+        };
+    }
+
+    private static long retryAfterSeconds(Duration wait) {
+        return Math.max(1, (wait.toMillis() + 999) / 1000);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, Route route, String reason) {
+        return Counter.builder("qrcode.rate-limit.rejected")
+                .tag("route", route.tag)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static PathPattern pattern(String pattern) {
+        return PathPatternParser.defaultInstance.parse(pattern);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private enum Route {
+        GENERATE("generate", true, HttpMethod.POST, "/qrcode/generate"),
+        GENERATE_LINK("generate_link", true, HttpMethod.POST, "/qrcode/generate-link"),
+        DOWNLOAD("download", true, HttpMethod.GET, "/qrcode/download"),
+        BATCH("batch", true, HttpMethod.POST, "/qrcode/batch"),
+        // A leitura tem pool próprio; a latência de renderização não diz nada sobre ela
+        DECODE("decode", false, HttpMethod.POST, "/qrcode/decode"),
+        // Pool próprio também, mas disputa os mesmos núcleos que a renderização
+        SHEET("sheet", true, HttpMethod.POST, "/qrcode/sheet"),
+        OTHER("other", false, null, null);
+
+        private final String tag;
+        private final boolean renders;
+        private final HttpMethod method;
+        private final PathPattern pattern;
+
+        Route(String tag, boolean renders, HttpMethod method, String pattern) {
+            this.tag = tag;
+            this.renders = renders;
+            this.method = method;
+            this.pattern = pattern == null ? null : pattern(pattern);
+        }
+
+        static Route of(HttpMethod method, PathContainer path) {
+            for (var route : values()) {
+                if (route.pattern != null && route.method.equals(method) && route.pattern.matches(path)) {
+                    return route;
+                }
+            }
+            return OTHER;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Configuração do controle de admissão de {@code /qrcode/**} ({@code qrcode.rate-limit.*}).
+ * <p>
+ * Cada cliente tem um balde de {@code capacity} fichas que enche a
+ * {@code refillPerSecond} por segundo; cada requisição gasta o custo da rota.
+ * Lotes e folhas pagam só a entrada no filtro e depois {@code batchItemCost}
+ * ou {@code sheetLabelCost} por item, à medida que são renderizados.
+ * <p>
+ * {@code trustedProxies} é quantos proxies à frente da aplicação acrescentam o
+ * IP de quem os chamou ao {@code X-Forwarded-For}; zero usa o endereço da conexão.
+ */
+@Component
+public record RateLimitSettings(
+        @Value("${qrcode.rate-limit.enabled:true}") boolean enabled,
+        @Value("${qrcode.rate-limit.capacity:120}") double capacity,
+        @Value("${qrcode.rate-limit.refill-per-second:2}") double refillPerSecond,
+        @Value("${qrcode.rate-limit.max-clients:100000}") long maxClients,
+        @Value("${qrcode.rate-limit.api-key-header:X-Api-Key}") String apiKeyHeader,
+        @Value("${qrcode.rate-limit.api-keys:}") Set<String> apiKeys,
+        @Value("${qrcode.rate-limit.trusted-proxies:0}") int trustedProxies,
+        @Value("${qrcode.rate-limit.cost.generate:1}") int generateCost,
+        @Value("${qrcode.rate-limit.cost.generate-link:10}") int generateLinkCost,
+        @Value("${qrcode.rate-limit.cost.download:1}") int downloadCost,
+        @Value("${qrcode.rate-limit.cost.batch:5}") int batchCost,
+        @Value("${qrcode.rate-limit.cost.batch-item:1}") int batchItemCost,
+        @Value("${qrcode.rate-limit.cost.decode:5}") int decodeCost,
+        @Value("${qrcode.rate-limit.cost.sheet:5}") int sheetCost,
+        @Value("${qrcode.rate-limit.cost.sheet-label:1}") int sheetLabelCost,
+        @Value("${qrcode.rate-limit.cost.default:1}") int defaultCost,
+        @Value("${qrcode.rate-limit.shed-latency-threshold:500ms}") Duration shedLatencyThreshold,
+        @Value("${qrcode.rate-limit.max-shed-ratio:0.9}") double maxShedRatio) {
+
+    /**
+     * Tempo para um balde vazio encher de novo; depois disso o estado do cliente
+     * é igual ao de um cliente novo e pode ser descartado.
+     */
+    public Duration fullRefill() {
+        return Duration.ofMillis((long) Math.ceil(capacity / refillPerSecond * 1000));
+    }
+}
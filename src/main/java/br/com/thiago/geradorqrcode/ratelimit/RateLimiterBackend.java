@@ -0,0 +1,19 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Onde ficam os baldes dos clientes: em memória ({@code local}) ou
+ * compartilhados entre réplicas ({@code postgres}), conforme
+ * {@code qrcode.rate-limit.backend}.
+ */
+public interface RateLimiterBackend {
+
+    /**
+     * Gasta {@code cost} fichas do balde de {@code client}; devolve {@link Duration#ZERO}
+     * se a requisição passa ou quanto o cliente deve esperar para tentar de novo.
+     */
+    Mono<Duration> tryConsume(String client, int cost);
+}
@@ -0,0 +1,42 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Balde de fichas sem lock: o estado (fichas e instante do último cálculo) é
+ * imutável e trocado por CAS, então requisições simultâneas do mesmo cliente
+ * nunca gastam a mesma ficha.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Tenta gastar {@code cost} fichas; devolve zero se conseguiu ou, se não,
+     * quantos nanossegundos faltam para o balde ter fichas suficientes.
+     */
+    long tryConsume(double cost, long nowNanos) {
+        while (true) {
+            final var current = state.get();
+            final double available = Math.min(capacity,
+                    current.tokens() + Math.max(0, nowNanos - current.nanos()) * refillPerNano);
+            if (available < cost) {
+                return (long) Math.ceil((cost - available) / refillPerNano);
+            }
+            if (state.compareAndSet(current, new State(available - cost, Math.max(nowNanos, current.nanos())))) {
+                return 0;
+            }
+        }
+    }
+
+    private record State(double tokens, long nanos) {
+    }
+}
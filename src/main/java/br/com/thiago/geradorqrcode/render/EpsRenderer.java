@@ -0,0 +1,104 @@
+package br.com.thiago.geradorqrcode.render;
+
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+
+/**
+ * EPS com {@code size} pt de largura. Como PostScript não tem transparência, as
+ * cores são opacas (fundo totalmente transparente não é desenhado) e o logo é
+ * achatado sobre branco e embutido com Flate + ASCII85 no {@code colorimage}.
+ */
+@Component
+public class EpsRenderer implements VectorRenderer {
+
+    @Override
+    public OutputFormat format() {
+        return OutputFormat.EPS;
+    }
+
+    @Override
+    public void render(VectorSpec spec, OutputStream out) {
+        final var writer = new VectorWriter(out);
+        final int quietZone = spec.quietZone();
+        final double scale = (double) spec.size() / spec.fullWidth();
+
+        writer.text("%!PS-Adobe-3.0 EPSF-3.0\n%%BoundingBox: 0 0 ").number(spec.size()).write(' ').number(spec.height())
+                .text("\n%%LanguageLevel: 3\n%%EndComments\n");
+        writer.text("/R { rectfill } bind def\ngsave\n");
+        // Escala para módulos e inverte o eixo y: origem no canto superior esquerdo
+        writer.text("0 ").number(spec.height()).text(" translate ").decimal(scale).write(' ').decimal(-scale).text(" scale\n");
+
+        if (VectorSpec.isVisible(spec.background())) {
+            color(writer, spec.background());
+            writer.text("0 0 ").number(spec.fullWidth()).write(' ').number(spec.fullHeight()).text(" R\n");
+        }
+        color(writer, spec.foreground());
+        ModuleRects.forEach(spec.modules(), (x, y, width, height) -> writer
+                .number(x + quietZone).write(' ').number(y + quietZone).write(' ')
+                .number(width).write(' ').number(height).text(" R\n"));
+
+        if (spec.logo() != null) {
+            writeLogo(writer, spec);
+        }
+
+        writer.text("grestore\nshowpage\n%%EOF\n");
+        writer.flush();
+    }
+
+    private void writeLogo(VectorWriter writer, VectorSpec spec) {
+        final double center = spec.center();
+        final double logoRadius = spec.logoRadius();
+        final var logo = spec.logo().scaled(VectorSpec.LOGO_PIXELS);
+        final int width = logo.getWidth();
+        final int height = logo.getHeight();
+
+        writer.text("1 1 1 setrgbcolor newpath ").decimal(center).write(' ').decimal(center).write(' ')
+                .decimal(spec.circleRadius()).text(" 0 360 arc fill\n");
+        writer.text("gsave newpath ").decimal(center).write(' ').decimal(center).write(' ')
+                .decimal(logoRadius).text(" 0 360 arc clip\n");
+        writer.decimal(center - logoRadius).write(' ').decimal(center - logoRadius).text(" translate ")
+                .decimal(logoRadius * 2).write(' ').decimal(logoRadius * 2).text(" scale\n");
+        writer.text("/logo currentfile /ASCII85Decode filter /FlateDecode filter def\n")
+                .number(width).write(' ').number(height).text(" 8 [").number(width).text(" 0 0 ").number(height)
+                .text(" 0 0] logo false 3 colorimage\n");
+        ascii85(writer, VectorImages.deflate(VectorImages.rgb(logo, true)));
+        writer.text("~>\n");
+        writer.text("grestore\n");
+    }
+
+    private static void ascii85(VectorWriter writer, byte[] data) {
+        final char[] digits = new char[5];
+        int column = 0;
+        for (int i = 0; i < data.length; i += 4) {
+            final int length = Math.min(4, data.length - i);
+            long tuple = 0;
+            for (int j = 0; j < 4; j++) {
+                tuple = (tuple << 8) | (j < length ? data[i + j] & 0xFF : 0);
+            }
+            if (tuple == 0 && length == 4) {
+                writer.write('z');
+                column++;
+            } else {
+                for (int j = 4; j >= 0; j--) {
+                    digits[j] = (char) ('!' + tuple % 85);
+                    tuple /= 85;
+                }
+                for (int j = 0; j <= length; j++) {
+                    writer.write(digits[j]);
+                }
+                column += length + 1;
+            }
+            if (column >= 75) {
+                writer.write('\n');
+                column = 0;
+            }
+        }
+    }
+
+    private static void color(VectorWriter writer, int argb) {
+        writer.decimal(((argb >>> 16) & 0xFF) / 255.0).write(' ')
+                .decimal(((argb >>> 8) & 0xFF) / 255.0).write(' ')
+                .decimal((argb & 0xFF) / 255.0).text(" setrgbcolor\n");
+    }
+}
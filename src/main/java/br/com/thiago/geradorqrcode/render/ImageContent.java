@@ -0,0 +1,39 @@
+package br.com.thiago.geradorqrcode.render;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Imagem gerada que precisa sobreviver a chamadas lentas (upload, encurtador).
+ * <p>
+ * O mesmo array alimenta o upload e a resposta, sem cópias. Não vai para disco:
+ * o generate-link só produz o PNG padrão de 300px, de poucos KB, e gravar o
+ * arquivo depois de o array já estar no heap não economizaria memória.
+ */
+public final class ImageContent {
+
+    private final byte[] bytes;
+    private final String filename;
+
+    public ImageContent(byte[] bytes, String filename) {
+        this.bytes = bytes;
+        this.filename = filename;
+    }
+
+    public long size() {
+        return bytes.length;
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public Resource asResource() {
+        return new ByteArrayResource(bytes) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.thiago.geradorqrcode.render;
+
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * Posicionamento de uma matriz de módulos dentro da imagem final, com a mesma
+ * regra de escala e centralização usada pelo {@code QRCodeWriter} do ZXing.
+ * <p>
+ * A escala é sempre um número inteiro de pixels por módulo, sem interpolação;
+ * quando o tamanho pedido é múltiplo exato dos módulos (com a margem), não sobra
+ * borda extra e as linhas de padding se resumem à zona de silêncio.
+ */
+public record ModuleLayout(int moduleWidth,
+                           int moduleHeight,
+                           int outputWidth,
+                           int outputHeight,
+                           int scale,
+                           int leftPadding,
+                           int topPadding) {
+
+    public static ModuleLayout of(BitMatrix modules, int width, int height, int quietZone) {
+        final int moduleWidth = modules.getWidth();
+        final int moduleHeight = modules.getHeight();
+        final int fullWidth = moduleWidth + (quietZone * 2);
+        final int fullHeight = moduleHeight + (quietZone * 2);
+        final int outputWidth = Math.max(width, fullWidth);
+        final int outputHeight = Math.max(height, fullHeight);
+        final int scale = Math.min(outputWidth / fullWidth, outputHeight / fullHeight);
+        final int leftPadding = (outputWidth - (moduleWidth * scale)) / 2;
+        final int topPadding = (outputHeight - (moduleHeight * scale)) / 2;
+        return new ModuleLayout(moduleWidth, moduleHeight, outputWidth, outputHeight, scale, leftPadding, topPadding);
+    }
+
+    /**
+     * Altura que mantém a proporção do símbolo para a largura pedida: a própria
+     * largura nos símbolos quadrados, menos nos códigos de barras lineares.
+     */
+    public static int heightFor(BitMatrix modules, int width, int quietZone) {
+        final int fullWidth = modules.getWidth() + (quietZone * 2);
+        final int fullHeight = modules.getHeight() + (quietZone * 2);
+        return (int) Math.round((double) width * fullHeight / fullWidth);
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.thiago.geradorqrcode.render;
+
+import com.google.zxing.common.BitMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Decompõe a matriz de módulos em retângulos: sequências horizontais de módulos
+ * escuros viram um retângulo, e sequências idênticas em linhas seguidas são
+ * unidas num só, mais alto. Reduz bastante o tamanho das saídas vetoriais.
+ */
+final class ModuleRects {
+
+    @FunctionalInterface
+    interface RectConsumer {
+        void accept(int x, int y, int width, int height);
+    }
+
+    private ModuleRects() {
+    }
+
+    static void forEach(BitMatrix modules, RectConsumer consumer) {
+        final int width = modules.getWidth();
+        final int height = modules.getHeight();
+        // Indexados pelo x inicial da sequência; fim 0 = nenhum retângulo aberto
+        final int[] openEnd = new int[width];
+        final int[] openTop = new int[width];
+        final int[] rowEnd = new int[width];
+
+        for (int y = 0; y <= height; y++) {
+            Arrays.fill(rowEnd, 0);
+            if (y < height) {
+                int x = 0;
+                while (x < width) {
+                    if (modules.get(x, y)) {
+                        final int start = x;
+                        while (x < width && modules.get(x, y)) {
+                            x++;
+                        }
+                        rowEnd[start] = x;
+                    } else {
+                        x++;
+                    }
+                }
+            }
+            for (int start = 0; start < width; start++) {
+                if (openEnd[start] != 0 && openEnd[start] != rowEnd[start]) {
+                    consumer.accept(start, openTop[start], openEnd[start] - start, y - openTop[start]);
+                    openEnd[start] = 0;
+                }
+                if (rowEnd[start] != 0 && openEnd[start] == 0) {
+                    openEnd[start] = rowEnd[start];
+                    openTop[start] = y;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.thiago.geradorqrcode.render;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+public enum OutputFormat {
+
+    PNG(MediaType.IMAGE_PNG, "png"),
+    SVG(MediaType.parseMediaType("image/svg+xml"), "svg"),
+    PDF(MediaType.APPLICATION_PDF, "pdf"),
+    EPS(MediaType.parseMediaType("application/postscript"), "eps");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    OutputFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static OutputFormat of(String value) {
+        if (value == null || value.isBlank()) {
+            return PNG;
+        }
+        for (OutputFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value.strip())) {
+                return format;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported output format: " + value);
+    }
+}
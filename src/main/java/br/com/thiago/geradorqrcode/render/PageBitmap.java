@@ -0,0 +1,93 @@
+package br.com.thiago.geradorqrcode.render;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Página inteira em 1 bit por pixel (1 = preto), empacotada como as linhas do
+ * PNG: bit mais significativo primeiro, cada linha começando num byte novo.
+ * <p>
+ * Várias threads desenham etiquetas diferentes na mesma página ao mesmo tempo.
+ * Os bytes cobertos por inteiro por uma sequência de pixels pretos são só da
+ * etiqueta que a desenha; os bytes das pontas podem ser divididos com a
+ * etiqueta vizinha e por isso recebem OR atômico.
+ */
+public final class PageBitmap {
+
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final byte[] bits;
+
+    public PageBitmap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.stride = (width + 7) >>> 3;
+        this.bits = new byte[stride * height];
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Pinta de preto o retângulo [x, x + width) x [y, y + height).
+     */
+    public void fill(int x, int y, int width, int height) {
+        for (int row = y; row < y + height; row++) {
+            setBits(row * stride, x, x + width);
+        }
+    }
+
+    public boolean isBlack(int x, int y) {
+        return (bits[y * stride + (x >>> 3)] & (0x80 >>> (x & 7))) != 0;
+    }
+
+    int stride() {
+        return stride;
+    }
+
+    byte[] bits() {
+        return bits;
+    }
+
+    /**
+     * Se a linha {@code y} é igual à anterior; as repetições dos módulos
+     * escalados viram linhas com filtro "Up" no PNG e no PDF.
+     */
+    boolean repeatsPreviousRow(int y) {
+        return y > 0 && Arrays.equals(bits, y * stride, (y + 1) * stride, bits, (y - 1) * stride, y * stride);
+    }
+
+    private void setBits(int rowStart, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        final int first = from >>> 3;
+        final int last = (to - 1) >>> 3;
+        final int head = 0xFF >>> (from & 7);
+        final int tail = (0xFF << (7 - ((to - 1) & 7))) & 0xFF;
+        if (first == last) {
+            or(rowStart + first, head & tail);
+            return;
+        }
+        or(rowStart + first, head);
+        Arrays.fill(bits, rowStart + first + 1, rowStart + last, (byte) 0xFF);
+        or(rowStart + last, tail);
+    }
+
+    private void or(int index, int mask) {
+        if (mask == 0xFF) {
+            bits[index] = (byte) 0xFF;
+        } else {
+            BYTES.getAndBitwiseOr(bits, index, (byte) mask);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.thiago.geradorqrcode.render;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Par de cores ARGB de um símbolo. Aceita {@code #RGB}, {@code #RRGGBB}
+ * (opacas), {@code 0xAARRGGBB} e, por compatibilidade, {@code AARRGGBB} sem
+ * prefixo; qualquer outra coisa é 400.
+ * <p>
+ * Os pares ficam internados numa tabela pequena de acesso direto: os pedidos
+ * repetem sempre as mesmas poucas combinações e, depois da primeira, o parse
+ * não aloca nada.
+ */
+public record Palette(int foreground, int background) {
+
+    public static final Palette DEFAULT = new Palette(0xFF000000, 0xFFFFFFFF);
+
+    private static final long OPAQUE = 0xFF000000L;
+    private static final long INVALID = -1;
+    private static final int INTERNED = 256;
+    // Entradas substituídas sem sincronização: os campos são finais, o pior caso é uma alocação a mais
+    private static final Palette[] interned = new Palette[INTERNED];
+
+    static {
+        interned[slot(DEFAULT.foreground, DEFAULT.background)] = DEFAULT;
+    }
+
+    public static Palette of(int foreground, int background) {
+        final int slot = slot(foreground, background);
+        final var palette = interned[slot];
+        if (palette != null && palette.foreground == foreground && palette.background == background) {
+            return palette;
+        }
+        final var created = new Palette(foreground, background);
+        interned[slot] = created;
+        return created;
+    }
+
+    /**
+     * Cores do pedido; as ausentes ficam com as do {@link #DEFAULT}.
+     */
+    public static Palette parse(String foreground, String background) {
+        if (foreground == null && background == null) {
+            return DEFAULT;
+        }
+        return of(foreground == null ? DEFAULT.foreground : parseColor(foreground, "foreground_color"),
+                background == null ? DEFAULT.background : parseColor(background, "background_color"));
+    }
+
+    public static int parseColor(String value, String field) {
+        final int length = value.length();
+        final long color;
+        if (length > 0 && value.charAt(0) == '#') {
+            color = switch (length) {
+                case 4 -> expand(hex(value, 1, 4));
+                case 7 -> opaque(hex(value, 1, 7));
+                default -> INVALID;
+            };
+        } else if (length == 10 && value.charAt(0) == '0' && (value.charAt(1) == 'x' || value.charAt(1) == 'X')) {
+            color = hex(value, 2, 10);
+        } else if (length == 8) {
+            color = hex(value, 0, 8);
+        } else {
+            color = INVALID;
+        }
+        if (color == INVALID) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, field + " must be #RGB, #RRGGBB or 0xAARRGGBB");
+        }
+        return (int) color;
+    }
+
+    /**
+     * {@code #abc} vira {@code #aabbcc}.
+     */
+    private static long expand(long rgb) {
+        if (rgb == INVALID) {
+            return INVALID;
+        }
+        final long r = (rgb >>> 8) & 0xF;
+        final long g = (rgb >>> 4) & 0xF;
+        final long b = rgb & 0xF;
+        return opaque(r * 0x11 << 16 | g * 0x11 << 8 | b * 0x11);
+    }
+
+    private static long opaque(long rgb) {
+        return rgb == INVALID ? INVALID : OPAQUE | rgb;
+    }
+
+    private static long hex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            final int digit = digit(value.charAt(i));
+            if (digit < 0) {
+                return INVALID;
+            }
+            result = (result << 4) | digit;
+        }
+        return result;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static int slot(int foreground, int background) {
+        final int hash = (foreground * 31 + background) * 0x9E3779B9;
+        return hash >>> 24;
+    }
+}
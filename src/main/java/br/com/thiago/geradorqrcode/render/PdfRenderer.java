@@ -0,0 +1,143 @@
+package br.com.thiago.geradorqrcode.render;
+
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+
+/**
+ * PDF de uma página com {@code size} pt de largura. Os módulos viram operadores
+ * {@code re} num único content stream; o logo vai como imagem RGB com SMask.
+ * <p>
+ * PDF não tem opacidade parcial sem ExtGState, então as cores são tratadas como
+ * opacas, exceto o fundo totalmente transparente, que não é desenhado.
+ */
+@Component
+public class PdfRenderer implements VectorRenderer {
+
+    private static final double BEZIER_CIRCLE = 0.5523;
+
+    @Override
+    public OutputFormat format() {
+        return OutputFormat.PDF;
+    }
+
+    @Override
+    public void render(VectorSpec spec, OutputStream out) {
+        final var writer = new VectorWriter(out);
+        final boolean hasLogo = spec.logo() != null;
+        final int objectCount = hasLogo ? 7 : 5;
+        final long[] offsets = new long[objectCount + 1];
+
+        writer.text("%PDF-1.4\n%âãÏÓ\n");
+
+        offsets[1] = writer.position();
+        writer.text("1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+
+        offsets[2] = writer.position();
+        writer.text("2 0 obj\n<< /Type /Pages /Kids [3 0 R] /Count 1 >>\nendobj\n");
+
+        offsets[3] = writer.position();
+        writer.text("3 0 obj\n<< /Type /Page /Parent 2 0 R /MediaBox [0 0 ").number(spec.size()).write(' ').number(spec.height())
+                .text("] /Contents 4 0 R /Resources << ");
+        if (hasLogo) {
+            writer.text("/XObject << /Logo 6 0 R >> ");
+        }
+        writer.text(">> >>\nendobj\n");
+
+        // O tamanho do content stream só é conhecido depois de escrito: vai num objeto indireto
+        offsets[4] = writer.position();
+        writer.text("4 0 obj\n<< /Length 5 0 R >>\nstream\n");
+        final long streamStart = writer.position();
+        writeContent(writer, spec);
+        final long streamLength = writer.position() - streamStart;
+        writer.text("\nendstream\nendobj\n");
+
+        offsets[5] = writer.position();
+        writer.text("5 0 obj\n").number(streamLength).text("\nendobj\n");
+
+        if (hasLogo) {
+            writeLogoImages(writer, spec, offsets);
+        }
+
+        final long xref = writer.position();
+        writer.text("xref\n0 ").number(objectCount + 1).text("\n0000000000 65535 f \n");
+        for (int i = 1; i <= objectCount; i++) {
+            writer.paddedNumber(offsets[i], 10).text(" 00000 n \n");
+        }
+        writer.text("trailer\n<< /Size ").number(objectCount + 1).text(" /Root 1 0 R >>\nstartxref\n")
+                .number(xref).text("\n%%EOF\n");
+        writer.flush();
+    }
+
+    private void writeContent(VectorWriter writer, VectorSpec spec) {
+        final int quietZone = spec.quietZone();
+        final double scale = (double) spec.size() / spec.fullWidth();
+
+        // Escala para módulos e inverte o eixo y: origem no canto superior esquerdo
+        writer.text("q ").decimal(scale).text(" 0 0 ").decimal(-scale).text(" 0 ").number(spec.height()).text(" cm\n");
+        if (VectorSpec.isVisible(spec.background())) {
+            color(writer, spec.background());
+            writer.text("0 0 ").number(spec.fullWidth()).write(' ').number(spec.fullHeight()).text(" re f\n");
+        }
+        color(writer, spec.foreground());
+        ModuleRects.forEach(spec.modules(), (x, y, width, height) -> writer
+                .number(x + quietZone).write(' ').number(y + quietZone).write(' ')
+                .number(width).write(' ').number(height).text(" re\n"));
+        writer.text("f\n");
+
+        if (spec.logo() != null) {
+            final double center = spec.center();
+            final double logoRadius = spec.logoRadius();
+            writer.text("1 1 1 rg\n");
+            circle(writer, center, spec.circleRadius());
+            writer.text("f\nq\n");
+            circle(writer, center, logoRadius);
+            // A imagem ocupa o quadrado unitário com a primeira linha em y = 1
+            writer.text("W n\n").decimal(logoRadius * 2).text(" 0 0 ").decimal(-logoRadius * 2).write(' ')
+                    .decimal(center - logoRadius).write(' ').decimal(center + logoRadius).text(" cm /Logo Do\nQ\n");
+        }
+        writer.text("Q");
+    }
+
+    private void writeLogoImages(VectorWriter writer, VectorSpec spec, long[] offsets) {
+        final var logo = spec.logo().scaled(VectorSpec.LOGO_PIXELS);
+        final int width = logo.getWidth();
+        final int height = logo.getHeight();
+        final byte[] rgbStream = VectorImages.deflate(VectorImages.rgb(logo, false));
+        final byte[] alphaStream = VectorImages.deflate(VectorImages.alpha(logo));
+
+        offsets[6] = writer.position();
+        imageHeader(writer, 6, width, height, "/DeviceRGB", rgbStream.length).text(" /SMask 7 0 R >>\nstream\n");
+        writer.bytes(rgbStream, 0, rgbStream.length).text("\nendstream\nendobj\n");
+
+        offsets[7] = writer.position();
+        imageHeader(writer, 7, width, height, "/DeviceGray", alphaStream.length).text(" >>\nstream\n");
+        writer.bytes(alphaStream, 0, alphaStream.length).text("\nendstream\nendobj\n");
+    }
+
+    private static VectorWriter imageHeader(VectorWriter writer, int object, int width, int height, String colorSpace, int length) {
+        return writer.number(object).text(" 0 obj\n<< /Type /XObject /Subtype /Image /Width ").number(width)
+                .text(" /Height ").number(height).text(" /ColorSpace ").text(colorSpace)
+                .text(" /BitsPerComponent 8 /Filter /FlateDecode /Length ").number(length);
+    }
+
+    private static void color(VectorWriter writer, int argb) {
+        writer.decimal(((argb >>> 16) & 0xFF) / 255.0).write(' ')
+                .decimal(((argb >>> 8) & 0xFF) / 255.0).write(' ')
+                .decimal((argb & 0xFF) / 255.0).text(" rg\n");
+    }
+
+    private static void circle(VectorWriter writer, double center, double radius) {
+        final double k = radius * BEZIER_CIRCLE;
+        writer.decimal(center + radius).write(' ').decimal(center).text(" m\n");
+        curve(writer, center + radius, center + k, center + k, center + radius, center, center + radius);
+        curve(writer, center - k, center + radius, center - radius, center + k, center - radius, center);
+        curve(writer, center - radius, center - k, center - k, center - radius, center, center - radius);
+        curve(writer, center + k, center - radius, center + radius, center - k, center + radius, center);
+    }
+
+    private static void curve(VectorWriter writer, double x1, double y1, double x2, double y2, double x3, double y3) {
+        writer.decimal(x1).write(' ').decimal(y1).write(' ').decimal(x2).write(' ').decimal(y2).write(' ')
+                .decimal(x3).write(' ').decimal(y3).text(" c\n");
+    }
+}
@@ -0,0 +1,296 @@
+package br.com.thiago.geradorqrcode.render;
+
+import com.google.zxing.common.BitMatrix;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gera PNGs indexados de 1 bit (paleta com fundo e frente) direto da matriz de
+ * módulos, sem passar por {@link BufferedImage} nem pelo pipeline do ImageIO.
+ * <p>
+ * Cada linha de módulos é empacotada uma única vez e repetida {@code scale}
+ * vezes usando o filtro "Up" do PNG, o que deixa as repetições zeradas e baratas
+ * de comprimir. Buffers, {@link Deflater} e {@link CRC32} são reaproveitados por
+ * thread.
+ */
+@Component
+public class QrPngRenderer {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int IHDR = 0x49484452;
+    private static final int PLTE = 0x504C5445;
+    private static final int TRNS = 0x74524E53;
+    private static final int IDAT = 0x49444154;
+    private static final int IEND = 0x49454E44;
+
+    private static final byte FILTER_NONE = 0;
+    private static final byte FILTER_UP = 2;
+    private static final int OPAQUE = 0xFF000000;
+    private static final int BLACK = 0xFF000000;
+    private static final int WHITE = 0xFFFFFFFF;
+
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    public byte[] render(BitMatrix modules, int width, int height, int quietZone, int foreground, int background) {
+        final var layout = ModuleLayout.of(modules, width, height, quietZone);
+        final var workspace = workspaces.get();
+        try {
+            workspace.begin(layout.outputWidth());
+            writeHeader(workspace, layout.outputWidth(), layout.outputHeight(), foreground, background);
+            writeImageData(workspace, modules, layout);
+            workspace.writeChunk(IEND, workspace.beginChunk());
+            return Arrays.copyOf(workspace.out, workspace.size);
+        } finally {
+            workspace.deflater.reset();
+        }
+    }
+
+    /**
+     * Versão em raster para os fluxos que ainda precisam desenhar sobre o QR Code
+     * (ex.: logo). As linhas são preenchidas direto no buffer de pixels.
+     */
+    public BufferedImage renderImage(BitMatrix modules, int width, int height, int quietZone, int foreground, int background) {
+        final var layout = ModuleLayout.of(modules, width, height, quietZone);
+        final boolean opaque = (foreground & OPAQUE) == OPAQUE && (background & OPAQUE) == OPAQUE;
+        final var image = new BufferedImage(layout.outputWidth(), layout.outputHeight(),
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        final int outputWidth = layout.outputWidth();
+        final int scale = layout.scale();
+
+        Arrays.fill(pixels, background);
+        for (int moduleY = 0; moduleY < layout.moduleHeight(); moduleY++) {
+            final int firstRow = (layout.topPadding() + moduleY * scale) * outputWidth;
+            for (int moduleX = 0; moduleX < layout.moduleWidth(); moduleX++) {
+                if (modules.get(moduleX, moduleY)) {
+                    final int from = firstRow + layout.leftPadding() + moduleX * scale;
+                    Arrays.fill(pixels, from, from + scale, foreground);
+                }
+            }
+            for (int repeat = 1; repeat < scale; repeat++) {
+                System.arraycopy(pixels, firstRow, pixels, firstRow + repeat * outputWidth, outputWidth);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * PNG de 1 bit de uma página de etiquetas, preto sobre branco. As linhas iguais
+     * à anterior vão com o filtro "Up", como as repetições das linhas de módulos.
+     */
+    public byte[] render(PageBitmap page) {
+        final var workspace = workspaces.get();
+        try {
+            final int stride = page.stride();
+            workspace.begin(page.width());
+            writeHeader(workspace, page.width(), page.height(), BLACK, WHITE);
+
+            final byte[] row = workspace.row;
+            final byte[] bits = page.bits();
+            final int idat = workspace.beginChunk();
+            row[0] = FILTER_NONE;
+            for (int y = 0; y < page.height(); y++) {
+                if (page.repeatsPreviousRow(y)) {
+                    workspace.deflate(workspace.repeat, stride + 1);
+                } else {
+                    System.arraycopy(bits, y * stride, row, 1, stride);
+                    workspace.deflate(row, stride + 1);
+                }
+            }
+            workspace.finishDeflate();
+            workspace.writeChunk(IDAT, idat);
+            workspace.writeChunk(IEND, workspace.beginChunk());
+            return Arrays.copyOf(workspace.out, workspace.size);
+        } finally {
+            workspace.deflater.reset();
+        }
+    }
+
+    private void writeHeader(Workspace workspace, int width, int height, int foreground, int background) {
+        workspace.write(PNG_SIGNATURE);
+
+        final int ihdr = workspace.beginChunk();
+        workspace.writeInt(width);
+        workspace.writeInt(height);
+        workspace.writeByte(1); // profundidade de 1 bit
+        workspace.writeByte(3); // cor indexada
+        workspace.writeByte(0); // deflate
+        workspace.writeByte(0); // filtro adaptativo padrão
+        workspace.writeByte(0); // sem entrelaçamento
+        workspace.writeChunk(IHDR, ihdr);
+
+        // Índice 0 = fundo, índice 1 = frente
+        final int plte = workspace.beginChunk();
+        workspace.writeRgb(background);
+        workspace.writeRgb(foreground);
+        workspace.writeChunk(PLTE, plte);
+
+        if ((foreground & OPAQUE) != OPAQUE || (background & OPAQUE) != OPAQUE) {
+            final int trns = workspace.beginChunk();
+            workspace.writeByte(background >>> 24);
+            workspace.writeByte(foreground >>> 24);
+            workspace.writeChunk(TRNS, trns);
+        }
+    }
+
+    private void writeImageData(Workspace workspace, BitMatrix modules, ModuleLayout layout) {
+        final int rowBytes = (layout.outputWidth() + 7) >>> 3;
+        final byte[] row = workspace.row;
+        final byte[] repeat = workspace.repeat;
+        final int scale = layout.scale();
+        final int moduleTop = layout.topPadding();
+        final int moduleBottom = moduleTop + layout.moduleHeight() * scale;
+
+        final int idat = workspace.beginChunk();
+        Arrays.fill(row, 0, rowBytes + 1, (byte) 0);
+        row[0] = FILTER_NONE;
+        for (int y = 0; y < moduleTop; y++) {
+            workspace.deflate(y == 0 ? row : repeat, rowBytes + 1);
+        }
+        for (int moduleY = 0; moduleY < layout.moduleHeight(); moduleY++) {
+            packRow(row, rowBytes, modules, moduleY, layout);
+            workspace.deflate(row, rowBytes + 1);
+            for (int i = 1; i < scale; i++) {
+                workspace.deflate(repeat, rowBytes + 1);
+            }
+        }
+        Arrays.fill(row, 0, rowBytes + 1, (byte) 0);
+        for (int y = moduleBottom; y < layout.outputHeight(); y++) {
+            workspace.deflate(y == moduleBottom ? row : repeat, rowBytes + 1);
+        }
+        workspace.finishDeflate();
+        workspace.writeChunk(IDAT, idat);
+    }
+
+    private static void packRow(byte[] row, int rowBytes, BitMatrix modules, int moduleY, ModuleLayout layout) {
+        Arrays.fill(row, 0, rowBytes + 1, (byte) 0);
+        row[0] = FILTER_NONE;
+        final int scale = layout.scale();
+        int moduleX = 0;
+        while (moduleX < layout.moduleWidth()) {
+            if (!modules.get(moduleX, moduleY)) {
+                moduleX++;
+                continue;
+            }
+            final int start = moduleX;
+            while (moduleX < layout.moduleWidth() && modules.get(moduleX, moduleY)) {
+                moduleX++;
+            }
+            setBits(row, layout.leftPadding() + start * scale, layout.leftPadding() + moduleX * scale);
+        }
+    }
+
+    /**
+     * Liga os bits do intervalo [from, to), preenchendo bytes inteiros no meio da sequência.
+     */
+    private static void setBits(byte[] row, int from, int to) {
+        while (from < to && (from & 7) != 0) {
+            row[1 + (from >>> 3)] |= (byte) (0x80 >>> (from & 7));
+            from++;
+        }
+        while (to - from >= 8) {
+            row[1 + (from >>> 3)] = (byte) 0xFF;
+            from += 8;
+        }
+        while (from < to) {
+            row[1 + (from >>> 3)] |= (byte) (0x80 >>> (from & 7));
+            from++;
+        }
+    }
+
+    private static final class Workspace {
+
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private final CRC32 crc = new CRC32();
+        private byte[] row = new byte[0];
+        private byte[] repeat = new byte[0];
+        private byte[] out = new byte[8192];
+        private int size;
+
+        private void begin(int outputWidth) {
+            final int rowLength = ((outputWidth + 7) >>> 3) + 1;
+            if (row.length < rowLength) {
+                row = new byte[rowLength];
+                // Linha repetida com filtro "Up": todos os bytes de dados são zero
+                repeat = new byte[rowLength];
+                repeat[0] = FILTER_UP;
+            }
+            size = 0;
+        }
+
+        private void deflate(byte[] input, int length) {
+            deflater.setInput(input, 0, length);
+            while (!deflater.needsInput()) {
+                ensureCapacity(256);
+                size += deflater.deflate(out, size, out.length - size, Deflater.NO_FLUSH);
+            }
+        }
+
+        private void finishDeflate() {
+            deflater.finish();
+            while (!deflater.finished()) {
+                ensureCapacity(256);
+                size += deflater.deflate(out, size, out.length - size, Deflater.NO_FLUSH);
+            }
+        }
+
+        /**
+         * Reserva espaço para tamanho e tipo do chunk; devolve a posição do início dos dados.
+         */
+        private int beginChunk() {
+            ensureCapacity(8);
+            size += 8;
+            return size;
+        }
+
+        private void writeChunk(int type, int dataStart) {
+            final int length = size - dataStart;
+            putInt(dataStart - 8, length);
+            putInt(dataStart - 4, type);
+            crc.reset();
+            crc.update(out, dataStart - 4, length + 4);
+            writeInt((int) crc.getValue());
+        }
+
+        private void writeRgb(int argb) {
+            writeByte(argb >>> 16);
+            writeByte(argb >>> 8);
+            writeByte(argb);
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(4);
+            putInt(size, value);
+            size += 4;
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            out[size++] = (byte) value;
+        }
+
+        private void write(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, out, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void putInt(int position, int value) {
+            out[position] = (byte) (value >>> 24);
+            out[position + 1] = (byte) (value >>> 16);
+            out[position + 2] = (byte) (value >>> 8);
+            out[position + 3] = (byte) value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, size + extra));
+            }
+        }
+    }
+}
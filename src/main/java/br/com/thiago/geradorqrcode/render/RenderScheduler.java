@@ -0,0 +1,89 @@
+package br.com.thiago.geradorqrcode.render;
+
+import br.com.thiago.geradorqrcode.concurrent.BoundedPool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool dedicado para o trabalho bloqueante/CPU da geração (encode, logo, PNG),
+ * fora do event loop do reactor-netty. É um {@link BoundedPool}: quando a fila
+ * enche, a tarefa é rejeitada e o cliente recebe 503 em vez de acumular
+ * requisições na memória.
+ * <p>
+ * A latência de cada tarefa (espera na fila + execução) alimenta uma média
+ * móvel exponencial, que o controle de admissão usa para descartar carga antes
+ * de a fila encher.
+ */
+@Slf4j
+@Component
+public class RenderScheduler implements DisposableBean {
+
+    private final BoundedPool pool;
+    // Média móvel exponencial da latência, em nanossegundos, atualizada por CAS
+    private final AtomicLong latencyEwma = new AtomicLong();
+
+    public RenderScheduler(@Value("${qrcode.render.threads:0}") int threads,
+                           @Value("${qrcode.render.queue-capacity:256}") int queueCapacity,
+                           MeterRegistry meterRegistry) {
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new BoundedPool("render", poolSize, queueCapacity, meterRegistry);
+
+        Gauge.builder("qrcode.render.workers.active", pool.executor(), ThreadPoolExecutor::getActiveCount)
+                .description("Render workers currently busy")
+                .register(meterRegistry);
+        Gauge.builder("qrcode.render.latency.ewma", latencyEwma, ewma -> ewma.get() / 1_000_000_000d)
+                .description("Exponentially weighted moving average of render queue wait plus execution time")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        log.info("Render scheduler started with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    public <T> Mono<T> schedule(Callable<T> task) {
+        return Mono.defer(() -> {
+            final long submitted = System.nanoTime();
+            return pool.schedule(task)
+                    // Só conclusões: rejeições imediatas da fila cheia puxariam a média para baixo
+                    .doOnSuccess(result -> recordLatency(System.nanoTime() - submitted));
+        });
+    }
+
+    private void recordLatency(long nanos) {
+        // Peso 1/8 para a amostra nova, como no cálculo de RTT do TCP
+        latencyEwma.accumulateAndGet(nanos, (average, sample) -> average == 0 ? sample : average + (sample - average) / 8);
+    }
+
+    public Duration getLatencyEwma() {
+        return Duration.ofNanos(latencyEwma.get());
+    }
+
+    public int getPoolSize() {
+        return pool.poolSize();
+    }
+
+    public int getQueueDepth() {
+        return pool.executor().getQueue().size();
+    }
+
+    public int getActiveWorkers() {
+        return pool.executor().getActiveCount();
+    }
+
+    public long getRejectedCount() {
+        return pool.rejectedCount();
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
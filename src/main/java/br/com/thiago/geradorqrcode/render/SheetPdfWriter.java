@@ -0,0 +1,149 @@
+package br.com.thiago.geradorqrcode.render;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * PDF de várias páginas escrito aos poucos: cada página é uma imagem de 1 bit
+ * da página inteira ({@link PageBitmap}) e sai assim que é desenhada; a árvore
+ * de páginas, que o PDF permite referenciar antes de definir, e a tabela xref
+ * só vão no fim. Das páginas já escritas ficam só os offsets dos objetos.
+ * <p>
+ * A imagem usa o preditor PNG: linhas repetidas vão com o filtro "Up", zeradas.
+ */
+public final class SheetPdfWriter implements AutoCloseable {
+
+    private static final byte FILTER_NONE = 0;
+    private static final byte FILTER_UP = 2;
+
+    private final ByteArrayOutputStream sink = new ByteArrayOutputStream(64 * 1024);
+    private final VectorWriter writer = new VectorWriter(sink);
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final double pageWidth;
+    private final double pageHeight;
+    private long[] offsets = new long[64];
+    private int pages;
+
+    /**
+     * @param pageWidth  largura da página em pontos
+     * @param pageHeight altura da página em pontos
+     */
+    public SheetPdfWriter(double pageWidth, double pageHeight) {
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        writer.text("%PDF-1.4\n%âãÏÓ\n");
+    }
+
+    /**
+     * Escreve a página e devolve os bytes produzidos desde a chamada anterior
+     * (na primeira, junto com o cabeçalho do arquivo).
+     */
+    public byte[] page(PageBitmap page) {
+        final int pageObject = 3 + pages * 3;
+        final int contentObject = pageObject + 1;
+        final int imageObject = pageObject + 2;
+
+        beginObject(pageObject).text("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 ").decimal(pageWidth).write(' ').decimal(pageHeight)
+                .text("] /Contents ").number(contentObject).text(" 0 R /Resources << /XObject << /Page ").number(imageObject)
+                .text(" 0 R >> >> >>\nendobj\n");
+
+        final byte[] content = content();
+        beginObject(contentObject).text("<< /Length ").number(content.length).text(" >>\nstream\n")
+                .bytes(content, 0, content.length).text("\nendstream\nendobj\n");
+
+        // 1 = preto: /Decode [1 0] inverte o DeviceGray, em que 1 seria branco
+        final byte[] image = compress(page);
+        beginObject(imageObject).text("<< /Type /XObject /Subtype /Image /Width ").number(page.width())
+                .text(" /Height ").number(page.height())
+                .text(" /ColorSpace /DeviceGray /BitsPerComponent 1 /Decode [1 0] /Filter /FlateDecode")
+                .text(" /DecodeParms << /Predictor 15 /Colors 1 /BitsPerComponent 1 /Columns ").number(page.width())
+                .text(" >> /Length ").number(image.length).text(" >>\nstream\n")
+                .bytes(image, 0, image.length).text("\nendstream\nendobj\n");
+
+        pages++;
+        return drain();
+    }
+
+    /**
+     * Catálogo, árvore de páginas, xref e trailer.
+     */
+    public byte[] finish() {
+        beginObject(1).text("<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+        beginObject(2).text("<< /Type /Pages /Kids [");
+        for (int page = 0; page < pages; page++) {
+            writer.number(3 + page * 3).text(" 0 R ");
+        }
+        writer.text("] /Count ").number(pages).text(" >>\nendobj\n");
+
+        final int objectCount = 2 + pages * 3;
+        final long xref = writer.position();
+        writer.text("xref\n0 ").number(objectCount + 1).text("\n0000000000 65535 f \n");
+        for (int i = 1; i <= objectCount; i++) {
+            writer.paddedNumber(offsets[i], 10).text(" 00000 n \n");
+        }
+        writer.text("trailer\n<< /Size ").number(objectCount + 1).text(" /Root 1 0 R >>\nstartxref\n")
+                .number(xref).text("\n%%EOF\n");
+        return drain();
+    }
+
+    private VectorWriter beginObject(int object) {
+        if (object >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(object + 1, offsets.length * 2));
+        }
+        offsets[object] = writer.position();
+        return writer.number(object).text(" 0 obj\n");
+    }
+
+    private byte[] content() {
+        final var content = new ByteArrayOutputStream(64);
+        final var contentWriter = new VectorWriter(content);
+        contentWriter.text("q ").decimal(pageWidth).text(" 0 0 ").decimal(pageHeight).text(" 0 0 cm /Page Do Q");
+        contentWriter.flush();
+        return content.toByteArray();
+    }
+
+    private byte[] compress(PageBitmap page) {
+        final int stride = page.stride();
+        final byte[] bits = page.bits();
+        final byte[] filter = new byte[1];
+        final byte[] zeros = new byte[stride];
+        final byte[] chunk = new byte[8192];
+        final var output = new ByteArrayOutputStream(16 * 1024);
+        deflater.reset();
+        for (int y = 0; y < page.height(); y++) {
+            final boolean repeat = page.repeatsPreviousRow(y);
+            filter[0] = repeat ? FILTER_UP : FILTER_NONE;
+            deflate(filter, 0, 1, chunk, output);
+            if (repeat) {
+                deflate(zeros, 0, stride, chunk, output);
+            } else {
+                deflate(bits, y * stride, stride, chunk, output);
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            output.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return output.toByteArray();
+    }
+
+    private void deflate(byte[] input, int offset, int length, byte[] chunk, ByteArrayOutputStream output) {
+        deflater.setInput(input, offset, length);
+        while (!deflater.needsInput()) {
+            output.write(chunk, 0, deflater.deflate(chunk));
+        }
+    }
+
+    private byte[] drain() {
+        writer.flush();
+        final byte[] bytes = sink.toByteArray();
+        sink.reset();
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+    }
+}
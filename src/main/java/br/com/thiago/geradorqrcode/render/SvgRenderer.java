@@ -0,0 +1,78 @@
+package br.com.thiago.geradorqrcode.render;
+
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.util.Base64;
+
+/**
+ * SVG com um único {@code <path>} para todos os módulos escuros, no sistema de
+ * coordenadas dos módulos ({@code viewBox}), escalado para {@code size} px.
+ */
+@Component
+public class SvgRenderer implements VectorRenderer {
+
+    @Override
+    public OutputFormat format() {
+        return OutputFormat.SVG;
+    }
+
+    @Override
+    public void render(VectorSpec spec, OutputStream out) {
+        final var writer = new VectorWriter(out);
+        final int fullWidth = spec.fullWidth();
+        final int fullHeight = spec.fullHeight();
+        final int quietZone = spec.quietZone();
+
+        writer.text("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").number(spec.size())
+                .text("\" height=\"").number(spec.height())
+                .text("\" viewBox=\"0 0 ").number(fullWidth).write(' ').number(fullHeight)
+                .text("\" shape-rendering=\"crispEdges\">");
+
+        if (VectorSpec.isVisible(spec.background())) {
+            writer.text("<rect width=\"").number(fullWidth).text("\" height=\"").number(fullHeight).text("\"");
+            fill(writer, spec.background());
+            writer.text("/>");
+        }
+
+        writer.text("<path");
+        fill(writer, spec.foreground());
+        writer.text(" d=\"");
+        ModuleRects.forEach(spec.modules(), (x, y, width, height) -> writer
+                .write('M').number(x + quietZone).write(' ').number(y + quietZone)
+                .write('h').number(width).write('v').number(height).text("h-").number(width).write('z'));
+        writer.text("\"/>");
+
+        if (spec.logo() != null) {
+            writeLogo(writer, spec);
+        }
+
+        writer.text("</svg>");
+        writer.flush();
+    }
+
+    private void writeLogo(VectorWriter writer, VectorSpec spec) {
+        final double center = spec.center();
+        final double logoRadius = spec.logoRadius();
+
+        writer.text("<circle cx=\"").decimal(center).text("\" cy=\"").decimal(center)
+                .text("\" r=\"").decimal(spec.circleRadius()).text("\" fill=\"#FFFFFF\"/>");
+        writer.text("<clipPath id=\"logo\"><circle cx=\"").decimal(center).text("\" cy=\"").decimal(center)
+                .text("\" r=\"").decimal(logoRadius).text("\"/></clipPath>");
+        writer.text("<image clip-path=\"url(#logo)\" preserveAspectRatio=\"none\" x=\"").decimal(center - logoRadius)
+                .text("\" y=\"").decimal(center - logoRadius)
+                .text("\" width=\"").decimal(logoRadius * 2).text("\" height=\"").decimal(logoRadius * 2)
+                .text("\" href=\"data:image/png;base64,");
+        final var png = Base64.getEncoder().encode(spec.logo().scaledPng(VectorSpec.LOGO_PIXELS));
+        writer.bytes(png, 0, png.length);
+        writer.text("\"/>");
+    }
+
+    private static void fill(VectorWriter writer, int argb) {
+        writer.text(" fill=\"#").hex(argb & 0xFFFFFF, 6).write('"');
+        final int alpha = argb >>> 24;
+        if (alpha != 0xFF) {
+            writer.text(" fill-opacity=\"").decimal(alpha / 255.0).write('"');
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.thiago.geradorqrcode.render;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.Deflater;
+
+/**
+ * Conversões do logo para as imagens embutidas nos formatos vetoriais.
+ */
+final class VectorImages {
+
+    private VectorImages() {
+    }
+
+    /**
+     * Amostras RGB de 8 bits; com {@code overWhite} a transparência é achatada sobre branco.
+     */
+    static byte[] rgb(BufferedImage image, boolean overWhite) {
+        final int[] pixels = pixels(image);
+        final byte[] rgb = new byte[pixels.length * 3];
+        for (int i = 0; i < pixels.length; i++) {
+            final int pixel = pixels[i];
+            final int alpha = overWhite ? pixel >>> 24 : 0xFF;
+            rgb[i * 3] = (byte) blend((pixel >>> 16) & 0xFF, alpha);
+            rgb[i * 3 + 1] = (byte) blend((pixel >>> 8) & 0xFF, alpha);
+            rgb[i * 3 + 2] = (byte) blend(pixel & 0xFF, alpha);
+        }
+        return rgb;
+    }
+
+    static byte[] alpha(BufferedImage image) {
+        final int[] pixels = pixels(image);
+        final byte[] alpha = new byte[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            alpha[i] = (byte) (pixels[i] >>> 24);
+        }
+        return alpha;
+    }
+
+    static byte[] deflate(byte[] data) {
+        final var deflater = new Deflater();
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            final var output = new ByteArrayOutputStream(data.length / 2 + 64);
+            final byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static int blend(int channel, int alpha) {
+        return (channel * alpha + 255 * (255 - alpha)) / 255;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.thiago.geradorqrcode.render;
+
+import java.io.OutputStream;
+
+/**
+ * Renderizador de um formato vetorial, escrito direto no {@link OutputStream}
+ * de destino a partir da matriz de módulos.
+ */
+public interface VectorRenderer {
+
+    OutputFormat format();
+
+    void render(VectorSpec spec, OutputStream out);
+}
@@ -0,0 +1,51 @@
+package br.com.thiago.geradorqrcode.render;
+
+import br.com.thiago.geradorqrcode.logo.LogoAsset;
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * Parâmetros de uma saída vetorial. As coordenadas são em módulos, com a zona de
+ * silêncio incluída; {@code size} é a largura final (px no SVG, pt no PDF/EPS).
+ */
+public record VectorSpec(BitMatrix modules, int size, int quietZone, int foreground, int background, LogoAsset logo) {
+
+    /**
+     * Resolução do logo embutido; alta o bastante para impressão ampliada.
+     */
+    static final int LOGO_PIXELS = 256;
+
+    int fullWidth() {
+        return modules.getWidth() + quietZone * 2;
+    }
+
+    int fullHeight() {
+        return modules.getHeight() + quietZone * 2;
+    }
+
+    /**
+     * Altura final: igual a {@code size} nos símbolos quadrados, proporcional nos
+     * códigos de barras lineares.
+     */
+    int height() {
+        return ModuleLayout.heightFor(modules, size, quietZone);
+    }
+
+    double center() {
+        return fullWidth() / 2.0;
+    }
+
+    /**
+     * Mesma proporção do PNG: círculo com 1/5 do QR Code e logo com 1/6.
+     */
+    double circleRadius() {
+        return fullWidth() / 10.0;
+    }
+
+    double logoRadius() {
+        return fullWidth() / 12.0;
+    }
+
+    static boolean isVisible(int argb) {
+        return (argb >>> 24) != 0;
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.thiago.geradorqrcode.render;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Escrita ASCII com buffer próprio para os formatos vetoriais: números são
+ * convertidos direto em bytes, sem criar Strings, e a posição é contada para os
+ * offsets da tabela xref do PDF.
+ */
+final class VectorWriter {
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[8192];
+    private int count;
+    private long position;
+
+    VectorWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    VectorWriter text(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            write(text.charAt(i));
+        }
+        return this;
+    }
+
+    VectorWriter number(long value) {
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        if (value >= 10) {
+            number(value / 10);
+        }
+        write((int) ('0' + value % 10));
+        return this;
+    }
+
+    /**
+     * Decimal com até 4 casas, sem zeros à direita.
+     */
+    VectorWriter decimal(double value) {
+        long scaled = Math.round(value * 10_000);
+        if (scaled < 0) {
+            write('-');
+            scaled = -scaled;
+        }
+        number(scaled / 10_000);
+        long fraction = scaled % 10_000;
+        if (fraction != 0) {
+            write('.');
+            int digits = 4;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            for (long divisor = (long) Math.pow(10, digits - 1); divisor > 0; divisor /= 10) {
+                write((int) ('0' + (fraction / divisor) % 10));
+            }
+        }
+        return this;
+    }
+
+    VectorWriter paddedNumber(long value, int width) {
+        for (long limit = (long) Math.pow(10, width - 1); limit > 1 && value < limit; limit /= 10) {
+            write('0');
+        }
+        return number(value);
+    }
+
+    VectorWriter hex(int value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            write(Character.toUpperCase(Character.forDigit((value >>> shift) & 0xF, 16)));
+        }
+        return this;
+    }
+
+    VectorWriter bytes(byte[] bytes, int offset, int length) {
+        flush();
+        try {
+            out.write(bytes, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        position += length;
+        return this;
+    }
+
+    VectorWriter write(int b) {
+        if (count == buffer.length) {
+            flush();
+        }
+        buffer[count++] = (byte) b;
+        position++;
+        return this;
+    }
+
+    long position() {
+        return position;
+    }
+
+    void flush() {
+        if (count > 0) {
+            try {
+                out.write(buffer, 0, count);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.thiago.geradorqrcode.repository;
+
+import br.com.thiago.geradorqrcode.model.JobLock;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface JobLockRepository extends ReactiveCrudRepository<JobLock, String> {
+
+    /**
+     * Pega o lock se ninguém o tem ou se o lease anterior venceu; vazio se outra réplica o detém.
+     */
+    @Query("insert into job_lock (name, owner, locked_until) " +
+            "values (:name, :owner, now() + make_interval(secs => :leaseSeconds)) " +
+            "on conflict (name) do update set owner = excluded.owner, locked_until = excluded.locked_until " +
+            "where job_lock.locked_until < now() " +
+            "returning name")
+    Mono<String> tryAcquire(String name, String owner, long leaseSeconds);
+
+    @Modifying
+    @Query("update job_lock set locked_until = now() where name = :name and owner = :owner")
+    Mono<Integer> release(String name, String owner);
+}
@@ -0,0 +1,42 @@
+package br.com.thiago.geradorqrcode.repository;
+
+import br.com.thiago.geradorqrcode.model.QrCodeJob;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface QrCodeJobRepository extends ReactiveCrudRepository<QrCodeJob, Long> {
+
+    Mono<QrCodeJob> findByJobId(UUID jobId);
+
+    /**
+     * Reserva até {@code limit} jobs prontos (ou com a reserva vencida, após uma
+     * queda do worker). O SKIP LOCKED deixa várias réplicas drenarem a fila juntas,
+     * e o novo {@code version} invalida as gravações do dono anterior.
+     */
+    @Query("update qr_code_job j " +
+            "set status = 'RUNNING', locked_until = now() + make_interval(secs => :leaseSeconds), updated_at = now(), " +
+            "    version = j.version + 1 " +
+            "where j.id in (select q.id from qr_code_job q " +
+            "               where (q.status = 'PENDING' and q.next_attempt_at <= now()) " +
+            "                  or (q.status = 'RUNNING' and q.locked_until < now()) " +
+            "               order by q.next_attempt_at " +
+            "               limit :limit " +
+            "               for update skip locked) " +
+            "returning j.*")
+    Flux<QrCodeJob> claim(int limit, long leaseSeconds);
+
+    /**
+     * Estende o lease de um job em andamento; 0 linhas se ele já não está
+     * {@code RUNNING}. Não confere a versão, que as etapas mudam a cada
+     * gravação: um worker que perdeu o job descobre ao gravar a etapa seguinte.
+     */
+    @Modifying
+    @Query("update qr_code_job set locked_until = now() + make_interval(secs => :leaseSeconds) " +
+            "where id = :id and status = 'RUNNING'")
+    Mono<Integer> renewLease(long id, long leaseSeconds);
+}
@@ -1,18 +1,38 @@
 package br.com.thiago.geradorqrcode.repository;
 
 import br.com.thiago.geradorqrcode.model.QrCode;
+import br.com.thiago.geradorqrcode.model.QrCodeExpiration;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 public interface QrCodeRepository extends ReactiveCrudRepository<QrCode, Long> {
 
-    Mono<QrCode> findByFileId(String fileId);
+    @Query("select q.id from qr_code q where q.file_id = :fileId")
+    Mono<Long> findIdByFileId(String fileId);
+
+    @Query("select q.id from qr_code q where q.file_id = :fileId and q.is_active = true")
+    Mono<Long> findActiveIdByFileId(String fileId);
+
+    /**
+     * Próxima página de QR Codes vencidos até {@code cutoff}, depois do cursor
+     * ({@code expiration_date}, {@code id}) da página anterior.
+     */
+    @Query("select q.id, q.file_id, q.expiration_date from qr_code q " +
+            "where q.is_active = true " +
+            "and q.expiration_date <= :cutoff " +
+            "and (q.expiration_date, q.id) > (:afterExpirationDate, :afterId) " +
+            "order by q.expiration_date, q.id " +
+            "limit :limit")
+    Flux<QrCodeExpiration> findExpiredPage(LocalDateTime cutoff, LocalDateTime afterExpirationDate, long afterId, int limit);
 
-    @Query("select q.* from qr_code q " +
-            "where q.expiration_date <= now() " +
-            "and q.is_active = true;")
-    Flux<QrCode> findToExpire();
+    @Modifying
+    @Query("update qr_code set is_active = false, deleted_tmsp = now() " +
+            "where id = any(:ids) and is_active = true")
+    Mono<Integer> deactivateAll(Long[] ids);
 
 }
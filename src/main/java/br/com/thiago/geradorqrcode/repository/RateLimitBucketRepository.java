@@ -0,0 +1,29 @@
+package br.com.thiago.geradorqrcode.repository;
+
+import br.com.thiago.geradorqrcode.model.RateLimitBucket;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface RateLimitBucketRepository extends ReactiveCrudRepository<RateLimitBucket, String> {
+
+    /**
+     * Reabastece o balde pelo tempo passado desde a última requisição e gasta
+     * {@code cost} fichas, tudo no mesmo upsert; vazio se não havia fichas suficientes.
+     */
+    @Query("insert into rate_limit_bucket (client_key, tokens, updated_at) " +
+            "values (:client, :capacity - :cost, now()) " +
+            "on conflict (client_key) do update set " +
+            "tokens = least(:capacity, rate_limit_bucket.tokens " +
+            "+ extract(epoch from now() - rate_limit_bucket.updated_at)::double precision * :refillPerSecond) - :cost, " +
+            "updated_at = now() " +
+            "where least(:capacity, rate_limit_bucket.tokens " +
+            "+ extract(epoch from now() - rate_limit_bucket.updated_at)::double precision * :refillPerSecond) >= :cost " +
+            "returning tokens")
+    Mono<Double> tryConsume(String client, int cost, double capacity, double refillPerSecond);
+
+    @Modifying
+    @Query("delete from rate_limit_bucket where updated_at < now() - make_interval(secs => :idleSeconds)")
+    Mono<Integer> deleteIdle(long idleSeconds);
+}
@@ -0,0 +1,26 @@
+package br.com.thiago.geradorqrcode.repository;
+
+import br.com.thiago.geradorqrcode.model.ShortUrl;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface ShortUrlRepository extends ReactiveCrudRepository<ShortUrl, String> {
+
+    @Query("select nextval('short_url_block_seq')")
+    Mono<Long> nextBlock();
+
+    @Modifying
+    @Query("insert into short_url (code, target_url, created_at) values (:code, :targetUrl, now())")
+    Mono<Integer> insert(String code, String targetUrl);
+
+    @Query("select s.target_url from short_url s where s.code = :code")
+    Mono<String> findTargetUrl(String code);
+
+    @Modifying
+    @Query("update short_url s set hits = s.hits + v.hits, last_hit_at = now() " +
+            "from unnest(:codes::varchar[], :hits::bigint[]) as v(code, hits) " +
+            "where s.code = v.code")
+    Mono<Integer> addHits(String[] codes, Long[] hits);
+}
@@ -0,0 +1,175 @@
+package br.com.thiago.geradorqrcode.service;
+
+import br.com.thiago.geradorqrcode.barcode.BarcodeEncoders;
+import br.com.thiago.geradorqrcode.batch.BatchZipWriter;
+import br.com.thiago.geradorqrcode.controller.dto.PrintSheetRequest;
+import br.com.thiago.geradorqrcode.ratelimit.ItemPermits;
+import br.com.thiago.geradorqrcode.render.OutputFormat;
+import br.com.thiago.geradorqrcode.render.PageBitmap;
+import br.com.thiago.geradorqrcode.render.QrPngRenderer;
+import br.com.thiago.geradorqrcode.render.SheetPdfWriter;
+import br.com.thiago.geradorqrcode.sheet.LabelSpec;
+import br.com.thiago.geradorqrcode.sheet.SheetLayout;
+import br.com.thiago.geradorqrcode.sheet.SheetRenderer;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Gera folhas de etiquetas para impressão, uma página por vez: cada página é
+ * desenhada, codificada e enviada antes de a seguinte começar, então um pedido
+ * de milhares de etiquetas usa a memória de uma página só.
+ * <p>
+ * Tudo o que dá para validar antes (layout, formato, textos vazios) vira 400 de
+ * imediato. Um texto que não cabe ou não pode ser codificado só aparece ao
+ * desenhar a página dele; se não for a primeira, a resposta já começou e é
+ * interrompida.
+ */
+@Slf4j
+@Service
+public class PrintSheetService {
+
+    private static final int MAX_MARGIN = 64;
+
+    private final SheetRenderer sheetRenderer;
+    private final BarcodeEncoders barcodeEncoders;
+    private final QrPngRenderer qrPngRenderer;
+    private final int maxLabels;
+
+    public PrintSheetService(SheetRenderer sheetRenderer,
+                             BarcodeEncoders barcodeEncoders,
+                             QrPngRenderer qrPngRenderer,
+                             @Value("${qrcode.sheet.max-labels:20000}") int maxLabels) {
+        this.sheetRenderer = sheetRenderer;
+        this.barcodeEncoders = barcodeEncoders;
+        this.qrPngRenderer = qrPngRenderer;
+        this.maxLabels = maxLabels;
+    }
+
+    /**
+     * Valida o pedido e devolve a folha ainda não desenhada: as páginas só são
+     * renderizadas quando a resposta as consome, cada uma depois de cobrar de
+     * {@code permits} as etiquetas dela.
+     */
+    public PrintSheet render(PrintSheetRequest request, DataBufferFactory bufferFactory, ItemPermits permits) {
+        final var texts = texts(request);
+        final var layout = SheetLayout.of(request);
+        final var spec = labelSpec(request);
+        final var format = outputFormat(request);
+        final int perPage = layout.labelsPerPage();
+        final int pages = (texts.size() + perPage - 1) / perPage;
+        log.info("Rendering {} labels on {} {} pages ({}x{} at {} dpi)", texts.size(), pages, format.getExtension(),
+                layout.columns(), layout.rows(), layout.dpi());
+
+        final Flux<DataBuffer> content = format == OutputFormat.PDF
+                ? pdf(layout, spec, texts, pages, permits, bufferFactory)
+                : zip(layout, spec, texts, pages, permits, bufferFactory);
+        return new PrintSheet(format, content.doOnDiscard(DataBuffer.class, DataBufferUtils::release));
+    }
+
+    private Flux<DataBuffer> pdf(SheetLayout layout, LabelSpec spec, List<String> texts, int pages, ItemPermits permits,
+                                 DataBufferFactory bufferFactory) {
+        return Flux.using(() -> new SheetPdfWriter(layout.pageWidthPoints(), layout.pageHeightPoints()),
+                pdf -> Flux.range(0, pages)
+                        .concatMap(page -> renderPage(layout, spec, texts, page, permits, pdf::page))
+                        .concatWith(Flux.defer(() -> Flux.just(pdf.finish())))
+                        .map(bufferFactory::wrap),
+                SheetPdfWriter::close);
+    }
+
+    private Flux<DataBuffer> zip(SheetLayout layout, LabelSpec spec, List<String> texts, int pages, ItemPermits permits,
+                                 DataBufferFactory bufferFactory) {
+        return Flux.using(() -> new BatchZipWriter(bufferFactory),
+                zip -> Flux.range(0, pages)
+                        .concatMap(page -> renderPage(layout, spec, texts, page, permits, qrPngRenderer::render)
+                                .map(png -> zip.write(String.format("page-%04d.png", page + 1), png)))
+                        .concatWith(Flux.defer(() -> Flux.just(zip.finish()))),
+                BatchZipWriter::close);
+    }
+
+    private <T> Mono<T> renderPage(SheetLayout layout, LabelSpec spec, List<String> texts, int page, ItemPermits permits,
+                                   Function<PageBitmap, T> encoder) {
+        final int perPage = layout.labelsPerPage();
+        final int first = page * perPage;
+        final var pageTexts = texts.subList(first, Math.min(texts.size(), first + perPage));
+        return permits.acquire(pageTexts.size())
+                .then(sheetRenderer.renderPage(layout, spec, pageTexts, first, encoder));
+    }
+
+    private List<String> texts(PrintSheetRequest request) {
+        final var texts = request.getTexts();
+        if (texts == null || texts.isEmpty()) {
+            throw badRequest("texts must not be empty");
+        }
+        if (texts.size() > maxLabels) {
+            throw badRequest("at most " + maxLabels + " texts per sheet request");
+        }
+        for (int i = 0; i < texts.size(); i++) {
+            if (texts.get(i) == null || texts.get(i).isEmpty()) {
+                throw badRequest("Label " + i + " has no text");
+            }
+        }
+        return texts;
+    }
+
+    private LabelSpec labelSpec(PrintSheetRequest request) {
+        final var encoder = barcodeEncoders.of(request.getFormat());
+        final int quietZone = Optional.ofNullable(request.getMargin()).orElse(encoder.defaultQuietZone());
+        if (quietZone < 0 || quietZone > MAX_MARGIN) {
+            throw badRequest("margin must be between 0 and " + MAX_MARGIN);
+        }
+        if (encoder.format() != BarcodeFormat.QR_CODE) {
+            if (request.getErrorCorrection() != null) {
+                throw badRequest("error_correction is only supported for qr_code");
+            }
+            return new LabelSpec(encoder, Map.of(), quietZone);
+        }
+        return new LabelSpec(encoder, Map.of(EncodeHintType.ERROR_CORRECTION, errorCorrection(request)), quietZone);
+    }
+
+    private static ErrorCorrectionLevel errorCorrection(PrintSheetRequest request) {
+        if (request.getErrorCorrection() == null) {
+            return ErrorCorrectionLevel.L;
+        }
+        try {
+            return ErrorCorrectionLevel.valueOf(request.getErrorCorrection().strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw badRequest("error_correction must be one of L, M, Q, H");
+        }
+    }
+
+    private static OutputFormat outputFormat(PrintSheetRequest request) {
+        final var format = request.getOutputFormat() == null ? OutputFormat.PDF : OutputFormat.of(request.getOutputFormat());
+        if (format != OutputFormat.PDF && format != OutputFormat.PNG) {
+            throw badRequest("output_format must be pdf or png");
+        }
+        return format;
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+
+    /**
+     * Folha validada: {@code format} PDF é um PDF de várias páginas; PNG, um ZIP
+     * com um PNG por página.
+     */
+    public record PrintSheet(OutputFormat format, Flux<DataBuffer> content) {
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.thiago.geradorqrcode.service;
+
+import br.com.thiago.geradorqrcode.batch.BatchManifest;
+import br.com.thiago.geradorqrcode.batch.BatchZipWriter;
+import br.com.thiago.geradorqrcode.controller.dto.GenerateQRCodeRequest;
+import br.com.thiago.geradorqrcode.ratelimit.ItemPermits;
+import br.com.thiago.geradorqrcode.render.RenderScheduler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Gera lotes de QR Codes como um ZIP transmitido aos poucos.
+ * <p>
+ * Os itens são renderizados em paralelo, mas escritos no ZIP na ordem de
+ * chegada; como o {@code flatMapSequential} só pede novos itens quando a
+ * resposta HTTP consome os anteriores, a memória fica limitada a poucas imagens.
+ * As fichas do cliente são cobradas por item, em grupos de {@value #PERMIT_CHUNK},
+ * antes da renderização.
+ * <p>
+ * Os itens disputam a fila do {@link RenderScheduler} com as requisições
+ * avulsas: a concorrência do lote não passa do tamanho do pool, e um item
+ * rejeitado por fila cheia espera e tenta de novo em vez de virar falha no
+ * manifest.
+ */
+@Slf4j
+@Service
+public class QRCodeBatchService {
+
+    private static final String MANIFEST_ENTRY = "manifest.json";
+    private static final int PERMIT_CHUNK = 32;
+    private static final int MAX_QUEUE_RETRIES = 8;
+    private static final Duration QUEUE_RETRY_BACKOFF = Duration.ofMillis(50);
+    private static final Duration MAX_QUEUE_RETRY_BACKOFF = Duration.ofSeconds(2);
+
+    private final QRCodeService qrCodeService;
+    private final ObjectMapper objectMapper;
+    private final int concurrency;
+    private final int maxReportedErrors;
+    private final int progressInterval;
+
+    public QRCodeBatchService(QRCodeService qrCodeService,
+                              ObjectMapper objectMapper,
+                              RenderScheduler renderScheduler,
+                              @Value("${qrcode.batch.concurrency:0}") int concurrency,
+                              @Value("${qrcode.batch.max-reported-errors:10000}") int maxReportedErrors,
+                              @Value("${qrcode.batch.progress-interval:10000}") int progressInterval) {
+        this.qrCodeService = qrCodeService;
+        this.objectMapper = objectMapper;
+        if (progressInterval <= 0) {
+            throw new IllegalArgumentException("qrcode.batch.progress-interval must be greater than 0, got " + progressInterval);
+        }
+        // Mais itens em voo que threads de renderização só ocupariam a fila compartilhada
+        this.concurrency = Math.min(concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors(),
+                renderScheduler.getPoolSize());
+        this.maxReportedErrors = maxReportedErrors;
+        this.progressInterval = progressInterval;
+    }
+
+    public Flux<DataBuffer> generateZip(Flux<GenerateQRCodeRequest> requests, DataBufferFactory bufferFactory,
+                                        ItemPermits permits) {
+        return Flux.using(() -> new BatchZipWriter(bufferFactory),
+                zip -> {
+                    final var manifest = new BatchManifest(maxReportedErrors);
+                    return requests.buffer(PERMIT_CHUNK)
+                            .concatMap(chunk -> permits.acquire(chunk.size()).thenMany(Flux.fromIterable(chunk)), 1)
+                            .index()
+                            .flatMapSequential(item -> render(item.getT1(), item.getT2()), concurrency, 1)
+                            .<DataBuffer>handle((item, sink) -> {
+                                if (item.error() != null) {
+                                    manifest.failure(item.index(), item.text(), item.error());
+                                } else {
+                                    manifest.success();
+                                    sink.next(zip.write(entryName(item.index()), item.image()));
+                                }
+                                if (manifest.getTotal() % progressInterval == 0) {
+                                    log.info("Batch progress: {} items ({} failed)", manifest.getTotal(), manifest.getFailed());
+                                }
+                            })
+                            .concatWith(Flux.defer(() -> {
+                                log.info("Batch finished: {} items ({} failed)", manifest.getTotal(), manifest.getFailed());
+                                final var manifestEntry = zip.write(MANIFEST_ENTRY, writeManifest(manifest));
+                                return Flux.just(manifestEntry, zip.finish());
+                            }));
+                },
+                BatchZipWriter::close)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private Mono<BatchItem> render(long index, GenerateQRCodeRequest request) {
+        return Mono.defer(() -> qrCodeService.renderQRCode(request))
+                .retryWhen(Retry.backoff(MAX_QUEUE_RETRIES, QUEUE_RETRY_BACKOFF)
+                        .maxBackoff(MAX_QUEUE_RETRY_BACKOFF)
+                        .filter(QRCodeBatchService::isQueueFull)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .map(image -> new BatchItem(index, request.getText(), image, null))
+                .onErrorResume(error -> Mono.just(new BatchItem(index, request.getText(), null, describe(error))));
+    }
+
+    private byte[] writeManifest(BatchManifest manifest) {
+        try {
+            return objectMapper.writeValueAsBytes(manifest);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error writing batch manifest", e);
+        }
+    }
+
+    private static String entryName(long index) {
+        return String.format("%07d.png", index);
+    }
+
+    private static boolean isQueueFull(Throwable error) {
+        return error instanceof ResponseStatusException status
+                && status.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE
+                && status.getCause() instanceof RejectedExecutionException;
+    }
+
+    private static String describe(Throwable error) {
+        final var cause = NestedExceptionUtils.getMostSpecificCause(error);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private record BatchItem(long index, String text, byte[] image, String error) {
+    }
+}
@@ -1,174 +1,305 @@
 package br.com.thiago.geradorqrcode.service;
 
+import br.com.thiago.geradorqrcode.barcode.BarcodeEncoders;
+import br.com.thiago.geradorqrcode.cache.InFlightRenders;
+import br.com.thiago.geradorqrcode.cache.QrImageCache;
 import br.com.thiago.geradorqrcode.controller.dto.GenerateQRCodeRequest;
 import br.com.thiago.geradorqrcode.controller.dto.GenerateQrCodeResponse;
+import br.com.thiago.geradorqrcode.decode.BarcodeVerifier;
+import br.com.thiago.geradorqrcode.logo.LogoAsset;
+import br.com.thiago.geradorqrcode.logo.LogoStore;
 import br.com.thiago.geradorqrcode.model.QrCode;
+import br.com.thiago.geradorqrcode.observability.PipelineStage;
+import br.com.thiago.geradorqrcode.observability.QrPipelineObservations;
+import br.com.thiago.geradorqrcode.render.ImageContent;
+import br.com.thiago.geradorqrcode.render.ModuleLayout;
+import br.com.thiago.geradorqrcode.render.OutputFormat;
+import br.com.thiago.geradorqrcode.render.Palette;
+import br.com.thiago.geradorqrcode.render.QrPngRenderer;
+import br.com.thiago.geradorqrcode.render.RenderScheduler;
+import br.com.thiago.geradorqrcode.render.VectorRenderer;
+import br.com.thiago.geradorqrcode.render.VectorSpec;
 import br.com.thiago.geradorqrcode.repository.QrCodeRepository;
 import br.com.thiago.geradorqrcode.webclient.googledriveapi.GoogleDriveApiWebClient;
 import br.com.thiago.geradorqrcode.webclient.googledriveapi.dto.GoogleDriveApiResponse;
 import br.com.thiago.geradorqrcode.webclient.googledriveapi.dto.UploadFileRequest;
 import br.com.thiago.geradorqrcode.webclient.urlshortener.UrlShortenerWebClient;
 import com.google.zxing.BarcodeFormat;
-import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageConfig;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 
 @Slf4j
 @Service
-@EnableScheduling
 @RequiredArgsConstructor
 public class QRCodeService {
 
+    private static final int QR_CODE_SIZE = 300;
+    private static final int MAX_MARGIN = 64;
+    private static final int DEFAULT_QUIET_ZONE = 4;
+    private static final int BLACK = 0xFF000000;
+    private static final int WHITE = 0xFFFFFFFF;
+
     private final GoogleDriveApiWebClient googleDriveApiWebClient;
     private final UrlShortenerWebClient urlShortenerWebClient;
     private final QrCodeRepository qrCodeRepository;
+    private final QrImageCache qrImageCache;
+    private final InFlightRenders inFlightRenders;
+    private final QrPngRenderer qrPngRenderer;
+    private final RenderScheduler renderScheduler;
+    private final LogoStore logoStore;
+    private final List<VectorRenderer> vectorRenderers;
+    private final BarcodeEncoders barcodeEncoders;
+    private final BarcodeVerifier barcodeVerifier;
+    private final QrPipelineObservations observations;
 
     @Value("${client.google-drive-api-service.project-id}")
     private String googleDriveProjectId;
 
+    @Value("${qrcode.render.max-size:4096}")
+    private int maxSize;
+
     public Mono<byte[]> generateQRCode(GenerateQRCodeRequest request) {
-        return Mono.fromCallable(() -> {
-                    try {
-                        final var text = request.getText();
-                        final var backgroundColor = parseHexColor(Optional.ofNullable(request.getBackgroundColor())
-                                .orElse("0xFFFFFFFF"));
-                        final var foregroundColor = parseHexColor(Optional.ofNullable(request.getForegroundColor())
-                                .orElse("0xFF000000"));
-
-                        final var bitMatrix = new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, 300, 300, Map.of(EncodeHintType.MARGIN, 1));
-
-                        final var config = new MatrixToImageConfig(foregroundColor, backgroundColor);
-
-                        if (request.getLogoPath() != null) {
-                            final var qrImage = MatrixToImageWriter.toBufferedImage(bitMatrix, config);
-                            final var qrWithLogo = addLogoToQRCode(qrImage, request.getLogoPath());
-                            final var outputStream = new ByteArrayOutputStream();
-                            ImageIO.write(qrWithLogo, "PNG", outputStream);
-                            return outputStream.toByteArray();
-                        }
-
-                        final var outputStream = new ByteArrayOutputStream();
-                        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream, config);
-                        return outputStream.toByteArray();
-                    } catch (IOException | WriterException e) {
-                        throw new RuntimeException(e);
+        return renderSpec(request).flatMap(this::generateQRCode);
+    }
+
+    private Mono<byte[]> generateQRCode(RenderSpec spec) {
+        return Mono.justOrEmpty(qrImageCache.get(spec.key()))
+                .switchIfEmpty(inFlightRenders.join(spec.key(), () -> render(spec)
+                        .doOnNext(image -> qrImageCache.put(spec.key(), image))))
+                .onErrorMap(QRCodeService::isNotStatusError, error -> new RuntimeException("Error generating QR Code", error));
+    }
+
+    /**
+     * Gera no formato pedido em {@code output_format}. PNG passa pelo cache de
+     * imagens; os formatos vetoriais são escritos direto no buffer da resposta.
+     * Com {@code verify}, o PNG é lido de volta antes de sair e, se não
+     * devolver o texto pedido, a resposta é 422.
+     */
+    public Mono<DataBuffer> generateQRCode(RenderSpec spec, boolean verify, DataBufferFactory bufferFactory) {
+        return observations.operation("generate", Mono.defer(() -> {
+                    final var format = spec.outputFormat();
+                    final var symbology = spec.encoder().format();
+                    if (format == OutputFormat.PNG) {
+                        return generateQRCode(spec)
+                                .flatMap(image -> verify
+                                        ? observations.stage(PipelineStage.VERIFY, barcodeVerifier.verify(image, spec.text(), symbology))
+                                                .thenReturn(image)
+                                        : Mono.just(image))
+                                .doOnNext(image -> observations.recordOutput(format.name(), symbology.name(), image.length))
+                                .map(bufferFactory::wrap);
+                    }
+                    if (verify) {
+                        return Mono.error(badRequest("verify is only supported for png output"));
                     }
-                })
-                .onErrorResume(error -> Mono.error(new RuntimeException("Error generating QR Code", error)));
+                    return renderScheduler.schedule(() -> renderVector(spec, spec.logo(), bufferFactory))
+                            .doOnNext(buffer -> observations.recordOutput(format.name(), symbology.name(), buffer.readableByteCount()));
+                }))
+                .onErrorMap(QRCodeService::isNotStatusError, error -> new RuntimeException("Error generating QR Code", error));
     }
 
-    private int parseHexColor(String hexColor) {
-        // Remove o prefixo "0x" se presente
-        if (hexColor.startsWith("0x")) {
-            hexColor = hexColor.substring(2);
+    /**
+     * Renderiza sem passar pelo cache de imagens; usado pelos lotes, que não se repetem.
+     */
+    public Mono<byte[]> renderQRCode(GenerateQRCodeRequest request) {
+        return observations.operation("render", renderSpec(request).flatMap(this::render));
+    }
+
+    private Mono<byte[]> render(RenderSpec spec) {
+        return renderScheduler.schedule(() -> renderQRCode(spec, spec.logo()));
+    }
+
+    private DataBuffer renderVector(RenderSpec spec, LogoAsset logo, DataBufferFactory bufferFactory) throws WriterException {
+        final var modules = observations.stage(PipelineStage.ENCODE, () -> encodeModules(spec));
+        final var vectorSpec = new VectorSpec(modules, spec.size(), spec.margin(),
+                spec.palette().foreground(), spec.palette().background(), logo);
+        final var renderer = vectorRenderers.stream()
+                .filter(candidate -> candidate.format() == spec.outputFormat())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No renderer for " + spec.outputFormat()));
+        final var buffer = bufferFactory.allocateBuffer(4096);
+        try {
+            return observations.stage(PipelineStage.VECTOR_ENCODE, () -> {
+                renderer.render(vectorSpec, buffer.asOutputStream());
+                return buffer;
+            });
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private byte[] renderQRCode(RenderSpec spec, LogoAsset logo) {
+        try {
+            final var foregroundColor = spec.palette().foreground();
+            final var backgroundColor = spec.palette().background();
+
+            final var modules = observations.stage(PipelineStage.ENCODE, () -> encodeModules(spec));
+            final int height = ModuleLayout.heightFor(modules, spec.size(), spec.margin());
+
+            if (logo != null) {
+                final var qrWithLogo = observations.stage(PipelineStage.COMPOSITE, () -> addLogoToQRCode(
+                        qrPngRenderer.renderImage(modules, spec.size(), height, spec.margin(), foregroundColor, backgroundColor), logo));
+                return observations.stage(PipelineStage.PNG_ENCODE, () -> {
+                    final var outputStream = new ByteArrayOutputStream();
+                    ImageIO.write(qrWithLogo, "PNG", outputStream);
+                    return outputStream.toByteArray();
+                });
+            }
+
+            return observations.stage(PipelineStage.PNG_ENCODE,
+                    () -> qrPngRenderer.render(modules, spec.size(), height, spec.margin(), foregroundColor, backgroundColor));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Valida e normaliza o pedido: simbologia, formato, tamanho, margem, nível de
+     * correção, versão, cores e logo. Com logo o nível é sempre H, para o QR Code
+     * continuar legível com o centro coberto; nível, versão e logo só existem no
+     * QR Code. Qualquer valor inválido é 400. O logo é carregado já aqui, antes
+     * de qualquer consulta ao cache: o hash do conteúdo dele faz parte da chave.
+     */
+    public Mono<RenderSpec> renderSpec(GenerateQRCodeRequest request) {
+        return Mono.fromCallable(() -> validate(request))
+                .flatMap(spec -> spec.logoPath() == null
+                        ? Mono.just(spec)
+                        : observations.stage(PipelineStage.LOGO_FETCH, logoStore.load(spec.logoPath())).map(spec::withLogo));
+    }
+
+    private RenderSpec validate(GenerateQRCodeRequest request) {
+        if (request.getText() == null || request.getText().isEmpty()) {
+            throw badRequest("text is required");
+        }
+        final var encoder = barcodeEncoders.of(request.getFormat());
+        final var outputFormat = OutputFormat.of(request.getOutputFormat());
+        final var palette = Palette.parse(request.getForegroundColor(), request.getBackgroundColor());
+        final var logoPath = request.getLogoPath() == null ? null : request.getLogoPath().strip();
+        final int size = Optional.ofNullable(request.getSize()).orElse(QR_CODE_SIZE);
+        if (size < 1 || size > maxSize) {
+            throw badRequest("size must be between 1 and " + maxSize);
+        }
+        final int margin = Optional.ofNullable(request.getMargin()).orElse(encoder.defaultQuietZone());
+        if (margin < 0 || margin > MAX_MARGIN) {
+            throw badRequest("margin must be between 0 and " + MAX_MARGIN);
         }
+        if (encoder.format() != BarcodeFormat.QR_CODE) {
+            if (request.getLogoPath() != null || request.getErrorCorrection() != null || request.getQrVersion() != null) {
+                throw badRequest("logo_path, error_correction and qr_version are only supported for qr_code");
+            }
+            return RenderSpec.of(request.getText(), encoder, outputFormat, size, margin, null, null, palette, null);
+        }
+        final var version = request.getQrVersion();
+        if (version != null && (version < 1 || version > 40)) {
+            throw badRequest("qr_version must be between 1 and 40");
+        }
+        return RenderSpec.of(request.getText(), encoder, outputFormat, size, margin, errorCorrection(request), version, palette, logoPath);
+    }
 
-        // Converte o valor hexadecimal para int
-        return (int) Long.parseLong(hexColor, 16);
+    private ErrorCorrectionLevel errorCorrection(GenerateQRCodeRequest request) {
+        if (request.getLogoPath() != null) {
+            return ErrorCorrectionLevel.H;
+        }
+        if (request.getErrorCorrection() == null) {
+            return ErrorCorrectionLevel.L;
+        }
+        try {
+            return ErrorCorrectionLevel.valueOf(request.getErrorCorrection().strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw badRequest("error_correction must be one of L, M, Q, H");
+        }
     }
 
-    private BufferedImage addLogoToQRCode(BufferedImage qrImage, String logoPath) throws IOException {
-        BufferedImage logo;
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
 
-        // Verifica se o caminho do logo é uma URL ou um caminho local
-        if (logoPath.startsWith("http://") || logoPath.startsWith("https://")) {
-            logo = ImageIO.read(new URL(logoPath));
-        } else {
-            logo = ImageIO.read(Objects.requireNonNull(getClass().getResourceAsStream(logoPath)));
+    private BitMatrix encodeModules(RenderSpec spec) {
+        try {
+            return spec.encoder().encode(spec.text(), spec.hints());
+        } catch (WriterException | IllegalArgumentException e) {
+            // EAN-13 com dígitos inválidos, texto fora do charset do Code 128 etc.
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Text cannot be encoded: " + e.getMessage(), e);
         }
+    }
+
+    BufferedImage addLogoToQRCode(BufferedImage qrImage, LogoAsset logo) {
+        // Círculo de fundo e logo recortado já vêm prontos no tile
+        final var tile = logo.tile(qrImage.getWidth());
+        final int centerX = (qrImage.getWidth() - tile.getWidth()) / 2;
+        final int centerY = (qrImage.getHeight() - tile.getHeight()) / 2;
 
-        // Definição do tamanho do círculo e do logo
-        final int qrSize = qrImage.getWidth();
-        final int circleSize = qrSize / 5; // O círculo terá 1/5 do tamanho do QR Code
-        final int logoSize = qrSize / 6;   // O logo terá 1/6 do tamanho do QR Code
-        final int centerX = (qrSize - circleSize) / 2;
-        final int centerY = (qrSize - circleSize) / 2;
-
-        // Criar um logo redimensionado e circular
-        BufferedImage resizedLogo = new BufferedImage(logoSize, logoSize, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2dLogo = resizedLogo.createGraphics();
-        g2dLogo.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2dLogo.setClip(new Ellipse2D.Float(0, 0, logoSize, logoSize)); // Recorte circular
-        g2dLogo.drawImage(logo.getScaledInstance(logoSize, logoSize, Image.SCALE_SMOOTH), 0, 0, null);
-        g2dLogo.dispose();
-
-        // Criar o círculo de fundo com borda
-        BufferedImage circleBackground = new BufferedImage(circleSize, circleSize, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2dCircle = circleBackground.createGraphics();
-        g2dCircle.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Desenha o círculo branco com borda preta
-        g2dCircle.setColor(Color.WHITE);
-        g2dCircle.fillOval(0, 0, circleSize, circleSize);
-        g2dCircle.drawOval(0, 0, circleSize, circleSize);
-
-        // Desenha o logo dentro do círculo
-        int logoX = (circleSize - logoSize) / 2;
-        int logoY = (circleSize - logoSize) / 2;
-        g2dCircle.drawImage(resizedLogo, logoX, logoY, null);
-        g2dCircle.dispose();
-
-        // Sobrepor o círculo ao QR Code
         Graphics2D g2d = qrImage.createGraphics();
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.drawImage(circleBackground, centerX, centerY, null);
+        g2d.drawImage(tile, centerX, centerY, null);
         g2d.dispose();
 
         return qrImage;
     }
 
     public Mono<GenerateQrCodeResponse> generateQRCodeLink(GenerateQRCodeRequest request) {
-        final var googleApiUploadRequest = buildGoogleApiUploadRequest();
         final var text = request.getText();
-        return generateQRCodeToFile(text, 300, 300)
-                .flatMap(file -> googleDriveApiWebClient.uploadFile(file, googleApiUploadRequest)
-                        .flatMap(googleDriveApiResponse -> urlShortenerWebClient.shortenUrl(googleDriveApiResponse.getUrl())
-                                .map(shortUrl -> (buildQrCode(googleDriveApiResponse, shortUrl)))
-                                .flatMap(qrCodeRepository::save)
-                                .publishOn(Schedulers.boundedElastic())
+        return observations.operation("generate_link", generateQRCodeContent(text, 300, 300)
+                        .flatMap(content -> uploadQRCode(content)
+                                .flatMap(googleDriveApiResponse -> shortenUrl(googleDriveApiResponse.getUrl())
+                                        .map(shortUrl -> buildQrCode(googleDriveApiResponse.getFileId(), shortUrl))
+                                        .flatMap(qrCode -> observations.stage(PipelineStage.DB_SAVE, qrCodeRepository.save(qrCode))))
                                 .map(qrCode -> {
-                                    try {
-                                        return new GenerateQrCodeResponse(Files.readAllBytes(file.toPath()), qrCode.getUrl());
-                                    } catch (IOException e) {
-                                        throw new RuntimeException(e);
-                                    }
+                                    observations.recordOutput(OutputFormat.PNG.name(), BarcodeFormat.QR_CODE.name(), content.size());
+                                    return new GenerateQrCodeResponse(content.bytes(), qrCode.getUrl());
                                 })))
-                .onErrorResume(error -> Mono.error(new RuntimeException("Error generating QR Code link", error)));
+                .onErrorMap(QRCodeService::isNotStatusError, error -> new RuntimeException("Error generating QR Code link", error));
+    }
+
+    public Mono<GoogleDriveApiResponse> uploadQRCode(ImageContent content) {
+        return observations.stage(PipelineStage.DRIVE_UPLOAD,
+                googleDriveApiWebClient.uploadFile(content.asResource(), buildGoogleApiUploadRequest()));
+    }
+
+    public Mono<String> shortenUrl(String url) {
+        return observations.stage(PipelineStage.SHORTEN, urlShortenerWebClient.shortenUrl(url));
     }
 
-    private QrCode buildQrCode(GoogleDriveApiResponse googleDriveApiResponse, String shortUrl) {
+    /**
+     * Grava o QR Code do arquivo enviado ao Drive e devolve o id. Se já existe um
+     * registro para o {@code fileId} (nova tentativa de um job), devolve o id dele.
+     */
+    public Mono<Long> saveQRCode(String fileId, String shortUrl) {
+        return observations.stage(PipelineStage.DB_SAVE, qrCodeRepository.findIdByFileId(fileId)
+                .switchIfEmpty(Mono.defer(() -> qrCodeRepository.save(buildQrCode(fileId, shortUrl)).map(QrCode::getId))));
+    }
+
+    private static boolean isNotStatusError(Throwable error) {
+        return !(error instanceof ResponseStatusException);
+    }
+
+    private QrCode buildQrCode(String fileId, String shortUrl) {
         return QrCode.builder()
                 .url(shortUrl)
                 .expirationDate(LocalDateTime.now().plusMonths(1))
                 .isActive(Boolean.TRUE)
-                .fileId(googleDriveApiResponse.getFileId())
+                .fileId(fileId)
                 .build();
     }
 
@@ -179,45 +310,34 @@ public class QRCodeService {
                 .build();
     }
 
-    public Mono<File> generateQRCodeToFile(String text, int width, int height) {
-        return Mono.fromCallable(() -> {
-                    try {
-                        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-                        BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, width, height);
-                        File tempFile = File.createTempFile("qr-code", ".png");
-                        Path path = tempFile.toPath();
-                        MatrixToImageWriter.writeToPath(bitMatrix, "PNG", path);
-                        return tempFile;
-                    } catch (WriterException | IOException e) {
-                        throw new RuntimeException("Failed to generate QR Code to file", e);
-                    }
-                })
-                .subscribeOn(Schedulers.boundedElastic())
-                .onErrorResume(error -> Mono.error(new RuntimeException("Error generating QR Code to file", error)));
+    public Mono<byte[]> generateQRCodeImage(String text, int width, int height) {
+        return observations.operation("image", renderScheduler.schedule(() -> renderDefaultQRCode(text, width, height)))
+                .onErrorMap(QRCodeService::isNotStatusError, error -> new RuntimeException("Error generating QR Code image", error));
+    }
+
+    /**
+     * Igual a {@link #generateQRCodeImage}, mas guardado num {@link ImageContent}
+     * para atravessar o upload.
+     */
+    public Mono<ImageContent> generateQRCodeContent(String text, int width, int height) {
+        return renderScheduler.schedule(() -> new ImageContent(renderDefaultQRCode(text, width, height), "qr-code.png"))
+                .onErrorMap(QRCodeService::isNotStatusError, error -> new RuntimeException("Error generating QR Code image", error));
+    }
+
+    private byte[] renderDefaultQRCode(String text, int width, int height) throws WriterException {
+        final var modules = observations.stage(PipelineStage.ENCODE,
+                () -> barcodeEncoders.get(BarcodeFormat.QR_CODE).encode(text, Map.of()));
+        return observations.stage(PipelineStage.PNG_ENCODE,
+                () -> qrPngRenderer.render(modules, width, height, DEFAULT_QUIET_ZONE, BLACK, WHITE));
     }
 
     public Mono<Void> deleteQRCode(String fileId) {
         log.info("Deleting QR Code with fileId: {}", fileId);
-        return qrCodeRepository.findByFileId(fileId)
+        return qrCodeRepository.findActiveIdByFileId(fileId)
                 .switchIfEmpty(Mono.defer(() -> Mono.error(new RuntimeException("QR Code not found"))))
-                .flatMap(qrcode -> googleDriveApiWebClient.deleteFile(googleDriveProjectId, fileId)
-                        .then(Mono.just(qrcode.delete()))
-                        .flatMap(qrCodeRepository::save))
+                .flatMap(id -> googleDriveApiWebClient.deleteFile(googleDriveProjectId, fileId)
+                        .then(qrCodeRepository.deactivateAll(new Long[]{id})))
                 .onErrorResume(error -> Mono.error(new RuntimeException("Error deleting QR Code", error)))
                 .then();
     }
-
-    @Scheduled(cron = "0 0 0 * * ?")
-    public Flux<Void> deleteQRCodeJob() {
-        log.info("Deleting QR Codes expired");
-        return qrCodeRepository.findToExpire()
-                .flatMap(qrcode -> googleDriveApiWebClient.deleteFile(googleDriveProjectId, qrcode.getFileId())
-                        .then(Mono.just(qrcode.delete()))
-                        .flatMap(qrCodeRepository::save)
-                        .then())
-                .onErrorResume(error -> {
-                    log.error("Error deleting QR Code", error);
-                    return Mono.error(new RuntimeException("Error deleting QR Code", error));
-                });
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package br.com.thiago.geradorqrcode.service;
+
+import br.com.thiago.geradorqrcode.model.QrCodeExpiration;
+import br.com.thiago.geradorqrcode.repository.JobLockRepository;
+import br.com.thiago.geradorqrcode.repository.QrCodeRepository;
+import br.com.thiago.geradorqrcode.webclient.googledriveapi.GoogleDriveApiWebClient;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Remove do Drive e desativa os QR Codes vencidos.
+ * <p>
+ * A leitura é paginada por ({@code expiration_date}, {@code id}) até o instante
+ * em que a rodada começou, então linhas que falharam não são relidas na mesma
+ * rodada e ficam para a próxima. As chamadas ao Drive têm concorrência e taxa
+ * limitadas; cada página termina num único UPDATE com os ids removidos. Um lock
+ * com lease em {@code job_lock} garante uma só réplica rodando o job.
+ */
+@Slf4j
+@Service
+public class QrCodeExpiryService {
+
+    private static final String LOCK_NAME = "qr-code-expiry";
+    private static final LocalDateTime START_CURSOR = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final QrCodeRepository qrCodeRepository;
+    private final JobLockRepository jobLockRepository;
+    private final GoogleDriveApiWebClient googleDriveApiWebClient;
+    private final String googleDriveProjectId;
+    private final int pageSize;
+    private final int concurrency;
+    private final Duration lockLease;
+    private final RateLimiter driveRateLimiter;
+    private final String owner = UUID.randomUUID().toString();
+    private final Counter scanned;
+    private final Counter deleted;
+    private final Counter failed;
+
+    public QrCodeExpiryService(QrCodeRepository qrCodeRepository,
+                               JobLockRepository jobLockRepository,
+                               GoogleDriveApiWebClient googleDriveApiWebClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${client.google-drive-api-service.project-id}") String googleDriveProjectId,
+                               @Value("${qrcode.expiry.page-size:500}") int pageSize,
+                               @Value("${qrcode.expiry.concurrency:4}") int concurrency,
+                               @Value("${qrcode.expiry.drive-deletes-per-second:10}") int driveDeletesPerSecond,
+                               @Value("${qrcode.expiry.lock-lease:1h}") Duration lockLease) {
+        this.qrCodeRepository = qrCodeRepository;
+        this.jobLockRepository = jobLockRepository;
+        this.googleDriveApiWebClient = googleDriveApiWebClient;
+        this.googleDriveProjectId = googleDriveProjectId;
+        this.pageSize = pageSize;
+        this.concurrency = concurrency;
+        this.lockLease = lockLease;
+        this.driveRateLimiter = RateLimiter.of("qr-code-expiry-drive", RateLimiterConfig.custom()
+                .limitForPeriod(driveDeletesPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofMinutes(1))
+                .build());
+        this.scanned = counter(meterRegistry, "qrcode.expiry.scanned", "Expired QR Codes read by the expiry job");
+        this.deleted = counter(meterRegistry, "qrcode.expiry.deleted", "QR Codes removed from Drive and deactivated");
+        this.failed = counter(meterRegistry, "qrcode.expiry.failed", "QR Codes whose Drive deletion failed");
+    }
+
+    @Scheduled(cron = "${qrcode.expiry.cron:0 0 0 * * ?}")
+    public Mono<Void> deleteQRCodeJob() {
+        final var release = Mono.defer(() -> jobLockRepository.release(LOCK_NAME, owner));
+        return Mono.usingWhen(jobLockRepository.tryAcquire(LOCK_NAME, owner, lockLease.toSeconds()),
+                        lock -> {
+                            log.info("Deleting QR Codes expired");
+                            return expireFrom(LocalDateTime.now(), START_CURSOR, 0L).thenReturn(lock);
+                        },
+                        lock -> release,
+                        (lock, error) -> release,
+                        lock -> release)
+                .switchIfEmpty(Mono.fromRunnable(() -> log.info("QR Code expiry already running on another instance")))
+                .onErrorResume(error -> {
+                    // Linhas que falharam seguem ativas e entram na próxima rodada
+                    log.error("Error deleting QR Codes expired", error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> expireFrom(LocalDateTime cutoff, LocalDateTime afterExpirationDate, long afterId) {
+        return qrCodeRepository.findExpiredPage(cutoff, afterExpirationDate, afterId, pageSize)
+                .collectList()
+                .flatMap(page -> {
+                    if (page.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    final var last = page.get(page.size() - 1);
+                    final var next = page.size() < pageSize
+                            ? Mono.<Void>empty()
+                            : expireFrom(cutoff, last.expirationDate(), last.id());
+                    return expirePage(page).then(next);
+                });
+    }
+
+    private Mono<Void> expirePage(List<QrCodeExpiration> page) {
+        scanned.increment(page.size());
+        return Flux.fromIterable(page)
+                .flatMap(qrCode -> deleteFromDrive(qrCode).thenReturn(qrCode.id()), concurrency)
+                .collectList()
+                .filter(ids -> !ids.isEmpty())
+                .flatMap(ids -> qrCodeRepository.deactivateAll(ids.toArray(Long[]::new)))
+                .doOnNext(deleted::increment)
+                .then();
+    }
+
+    private Mono<Void> deleteFromDrive(QrCodeExpiration qrCode) {
+        // O limite vale por tentativa: as repetições do cliente também contam
+        return googleDriveApiWebClient.deleteFile(googleDriveProjectId, qrCode.fileId(), driveRateLimiter)
+                // Já removido do Drive: basta desativar
+                .onErrorResume(WebClientResponseException.NotFound.class, error -> Mono.empty())
+                .onErrorResume(error -> !isDriveUnavailable(error), error -> {
+                    failed.increment();
+                    log.warn("Could not delete QR Code {} from Drive: {}", qrCode.fileId(), error.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Circuito aberto: não adianta seguir com as próximas páginas, a rodada termina aqui.
+     */
+    private static boolean isDriveUnavailable(Throwable error) {
+        return error instanceof ResponseStatusException status
+                && status.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description) {
+        return Counter.builder(name).description(description).register(meterRegistry);
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.thiago.geradorqrcode.service;
+
+import br.com.thiago.geradorqrcode.controller.dto.GenerateQRCodeRequest;
+import br.com.thiago.geradorqrcode.controller.dto.GenerateQrCodeResponse;
+import br.com.thiago.geradorqrcode.controller.dto.QrCodeJobResponse;
+import br.com.thiago.geradorqrcode.model.QrCodeJob;
+import br.com.thiago.geradorqrcode.observability.QrPipelineObservations;
+import br.com.thiago.geradorqrcode.repository.QrCodeJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Generate-link assíncrono com uma outbox em {@code qr_code_job}.
+ * <p>
+ * O pedido só grava a linha do job e responde; os workers reservam jobs prontos,
+ * executam upload, encurtamento e gravação do QR Code, e salvam o resultado de
+ * cada etapa. Uma falha volta o job para a fila com backoff exponencial, e uma
+ * réplica que cai no meio do job perde a reserva quando o lease vence, então
+ * nada se perde num restart. Enquanto o job anda o lease é renovado a cada
+ * terço do prazo; se ainda assim outro worker o retomar, a trava otimista
+ * ({@code version}) faz a próxima gravação deste falhar e ele desiste do job.
+ */
+@Slf4j
+@Service
+public class QrCodeJobService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final QRCodeService qrCodeService;
+    private final QrPipelineObservations observations;
+    private final QrCodeJobRepository qrCodeJobRepository;
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+
+    public QrCodeJobService(QRCodeService qrCodeService,
+                            QrPipelineObservations observations,
+                            QrCodeJobRepository qrCodeJobRepository,
+                            @Value("${qrcode.jobs.batch-size:32}") int batchSize,
+                            @Value("${qrcode.jobs.concurrency:4}") int concurrency,
+                            @Value("${qrcode.jobs.max-attempts:8}") int maxAttempts,
+                            @Value("${qrcode.jobs.lease:2m}") Duration lease,
+                            @Value("${qrcode.jobs.retry-backoff:5s}") Duration retryBackoff,
+                            @Value("${qrcode.jobs.max-retry-backoff:10m}") Duration maxRetryBackoff) {
+        this.qrCodeService = qrCodeService;
+        this.observations = observations;
+        this.qrCodeJobRepository = qrCodeJobRepository;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    public Mono<QrCodeJobResponse> submit(GenerateQRCodeRequest request) {
+        if (request.getText() == null || request.getText().isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "text is required"));
+        }
+        return qrCodeJobRepository.save(QrCodeJob.pending(request.getText()))
+                .doOnNext(job -> log.info("QR Code link job {} accepted", job.getJobId()))
+                .map(job -> toResponse(job, null));
+    }
+
+    public Mono<QrCodeJobResponse> findJob(UUID jobId) {
+        return qrCodeJobRepository.findByJobId(jobId)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found: " + jobId))))
+                .flatMap(job -> {
+                    if (job.getStatus() != QrCodeJob.Status.DONE) {
+                        return Mono.just(toResponse(job, null));
+                    }
+                    // A imagem não fica no banco: o PNG padrão é determinístico e sai do texto
+                    return qrCodeService.generateQRCodeImage(job.getText(), 300, 300)
+                            .map(image -> toResponse(job, new GenerateQrCodeResponse(image, job.getShortUrl())));
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${qrcode.jobs.poll-interval-ms:1000}")
+    public Mono<Void> drainJobs() {
+        return qrCodeJobRepository.claim(batchSize, lease.toSeconds())
+                .flatMap(this::process, concurrency)
+                .onErrorResume(error -> {
+                    log.warn("Could not claim QR Code link jobs: {}", NestedExceptionUtils.getMostSpecificCause(error).getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> process(QrCodeJob job) {
+        return observations.operation("generate_link_job", Mono.firstWithSignal(advance(job), leaseLost(job)))
+                .doOnNext(done -> log.info("QR Code link job {} done", done.getJobId()))
+                .onErrorResume(OptimisticLockingFailureException.class, error -> {
+                    // Outro worker está com o job; gravar a falha só daria outro conflito
+                    log.warn("QR Code link job {} lost its lease at stage {}, leaving it to the new owner", job.getJobId(), job.getStage());
+                    return Mono.empty();
+                })
+                .onErrorResume(error -> retryLater(job, error))
+                .then();
+    }
+
+    /**
+     * Renova o lease enquanto o job anda; só emite, com erro, se o job deixou de
+     * estar reservado. Cancelado quando as etapas terminam.
+     */
+    private Mono<QrCodeJob> leaseLost(QrCodeJob job) {
+        return Flux.interval(lease.dividedBy(3))
+                .concatMap(tick -> qrCodeJobRepository.renewLease(job.getId(), lease.toSeconds())
+                        .onErrorResume(error -> {
+                            log.warn("Could not renew lease of QR Code link job {}: {}", job.getJobId(),
+                                    NestedExceptionUtils.getMostSpecificCause(error).getMessage());
+                            return Mono.just(1);
+                        }))
+                .filter(renewed -> renewed == 0)
+                .next()
+                .then(Mono.error(() -> new OptimisticLockingFailureException("QR Code link job " + job.getJobId() + " is no longer claimed")));
+    }
+
+    private Mono<QrCodeJob> advance(QrCodeJob job) {
+        return switch (job.getStage()) {
+            case UPLOAD -> qrCodeService.generateQRCodeContent(job.getText(), 300, 300)
+                    .flatMap(qrCodeService::uploadQRCode)
+                    .flatMap(response -> qrCodeJobRepository.save(job.uploaded(response.getFileId(), response.getUrl())))
+                    .flatMap(this::advance);
+            case SHORTEN -> qrCodeService.shortenUrl(job.getDriveUrl())
+                    .flatMap(shortUrl -> qrCodeJobRepository.save(job.shortened(shortUrl)))
+                    .flatMap(this::advance);
+            case SAVE -> qrCodeService.saveQRCode(job.getFileId(), job.getShortUrl())
+                    .flatMap(qrCodeId -> qrCodeJobRepository.save(job.done(qrCodeId)));
+            case DONE -> Mono.just(job);
+        };
+    }
+
+    private Mono<QrCodeJob> retryLater(QrCodeJob job, Throwable error) {
+        final var message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(error).getMessage());
+        final var delay = backoff(job.getAttempts());
+        job.failed(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                maxAttempts, LocalDateTime.now().plus(delay));
+        if (job.getStatus() == QrCodeJob.Status.FAILED) {
+            log.error("QR Code link job {} failed at stage {} after {} attempts", job.getJobId(), job.getStage(), job.getAttempts(), error);
+        } else {
+            log.warn("QR Code link job {} failed at stage {}, retrying in {}: {}", job.getJobId(), job.getStage(), delay, message);
+        }
+        return qrCodeJobRepository.save(job)
+                .onErrorResume(saveError -> {
+                    // Sem conseguir gravar, o lease vence e outro worker retoma o job
+                    log.error("Could not record failure of QR Code link job {}", job.getJobId(), saveError);
+                    return Mono.empty();
+                });
+    }
+
+    private Duration backoff(int attempts) {
+        final var delay = retryBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private static QrCodeJobResponse toResponse(QrCodeJob job, GenerateQrCodeResponse result) {
+        return QrCodeJobResponse.builder()
+                .jobId(job.getJobId())
+                .status(job.getStatus().name())
+                .stage(job.getStage().name())
+                .attempts(job.getAttempts())
+                .lastError(job.getLastError())
+                .result(result)
+                .build();
+    }
+}
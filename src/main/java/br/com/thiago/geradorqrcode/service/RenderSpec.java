@@ -0,0 +1,86 @@
+package br.com.thiago.geradorqrcode.service;
+
+import br.com.thiago.geradorqrcode.barcode.BarcodeEncoder;
+import br.com.thiago.geradorqrcode.cache.QrCacheKey;
+import br.com.thiago.geradorqrcode.logo.LogoAsset;
+import br.com.thiago.geradorqrcode.render.OutputFormat;
+import br.com.thiago.geradorqrcode.render.Palette;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Pedido de geração já validado e normalizado, montado uma vez por requisição
+ * por {@link QRCodeService#renderSpec}. A {@link QrCacheKey} é calculada na
+ * criação e serve de identidade: cache, deduplicação e ETag usam a mesma. Com
+ * logo, ela só vale depois de {@link #withLogo}, que põe o hash do conteúdo do
+ * logo na chave.
+ *
+ * @param errorCorrection nulo fora do QR Code
+ * @param version         nulo quando o Encoder escolhe a menor versão
+ * @param logo            nulo sem logo ou antes de {@link #withLogo}
+ */
+public record RenderSpec(String text,
+                         BarcodeEncoder encoder,
+                         OutputFormat outputFormat,
+                         int size,
+                         int margin,
+                         ErrorCorrectionLevel errorCorrection,
+                         Integer version,
+                         Palette palette,
+                         String logoPath,
+                         LogoAsset logo,
+                         QrCacheKey key) {
+
+    private static final Map<ErrorCorrectionLevel, Map<EncodeHintType, ?>> LEVEL_HINTS = levelHints();
+
+    static RenderSpec of(String text, BarcodeEncoder encoder, OutputFormat outputFormat, int size, int margin,
+                         ErrorCorrectionLevel errorCorrection, Integer version, Palette palette, String logoPath) {
+        return of(text, encoder, outputFormat, size, margin, errorCorrection, version, palette, logoPath, null);
+    }
+
+    private static RenderSpec of(String text, BarcodeEncoder encoder, OutputFormat outputFormat, int size, int margin,
+                                 ErrorCorrectionLevel errorCorrection, Integer version, Palette palette, String logoPath,
+                                 LogoAsset logo) {
+        final var key = QrCacheKey.of(text, palette.foreground(), palette.background(), logoPath, logo == null ? null : logo.digest(),
+                encoder.format(), outputFormat, size, margin, errorCorrection == null ? -1 : errorCorrection.getBits(), version == null ? 0 : version);
+        return new RenderSpec(text, encoder, outputFormat, size, margin, errorCorrection, version, palette, logoPath, logo, key);
+    }
+
+    RenderSpec withLogo(LogoAsset logo) {
+        return of(text, encoder, outputFormat, size, margin, errorCorrection, version, palette, logoPath, logo);
+    }
+
+    /**
+     * Hints do encoder; sem versão fixa, um dos mapas prontos por nível.
+     */
+    public Map<EncodeHintType, ?> hints() {
+        if (errorCorrection == null) {
+            return Map.of();
+        }
+        if (version == null) {
+            return LEVEL_HINTS.get(errorCorrection);
+        }
+        return Map.of(EncodeHintType.ERROR_CORRECTION, errorCorrection, EncodeHintType.QR_VERSION, version);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RenderSpec spec && key.equals(spec.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    private static Map<ErrorCorrectionLevel, Map<EncodeHintType, ?>> levelHints() {
+        final Map<ErrorCorrectionLevel, Map<EncodeHintType, ?>> hints = new EnumMap<>(ErrorCorrectionLevel.class);
+        for (ErrorCorrectionLevel level : ErrorCorrectionLevel.values()) {
+            hints.put(level, Map.of(EncodeHintType.ERROR_CORRECTION, level));
+        }
+        return hints;
+    }
+}
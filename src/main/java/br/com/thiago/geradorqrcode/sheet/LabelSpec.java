@@ -0,0 +1,13 @@
+package br.com.thiago.geradorqrcode.sheet;
+
+import br.com.thiago.geradorqrcode.barcode.BarcodeEncoder;
+import com.google.zxing.EncodeHintType;
+
+import java.util.Map;
+
+/**
+ * Como codificar cada etiqueta da folha: simbologia, hints do encoder e zona de
+ * silêncio em módulos.
+ */
+public record LabelSpec(BarcodeEncoder encoder, Map<EncodeHintType, ?> hints, int quietZone) {
+}
@@ -0,0 +1,134 @@
+package br.com.thiago.geradorqrcode.sheet;
+
+import br.com.thiago.geradorqrcode.controller.dto.PrintSheetRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Geometria de uma folha de etiquetas já convertida em pixels na resolução
+ * pedida: tamanho da página e posição de cada linha e coluna da grade. As
+ * posições são arredondadas a partir dos milímetros, sem acumular erro ao longo
+ * da grade.
+ */
+public record SheetLayout(int dpi,
+                          double pageWidthPoints,
+                          double pageHeightPoints,
+                          int pageWidth,
+                          int pageHeight,
+                          int columns,
+                          int rows,
+                          int labelWidth,
+                          int labelHeight,
+                          int[] columnX,
+                          int[] rowY) {
+
+    private static final double MM_PER_INCH = 25.4;
+    private static final double DEFAULT_MARGIN_MM = 5;
+    private static final int MIN_DPI = 72;
+    private static final int MAX_DPI = 1200;
+    private static final int MAX_LABELS_PER_PAGE = 1000;
+
+    public static SheetLayout of(PrintSheetRequest request) {
+        final var pageSize = PageSize.of(request.getPage());
+        final int dpi = Optional.ofNullable(request.getDpi()).orElse(300);
+        if (dpi < MIN_DPI || dpi > MAX_DPI) {
+            throw badRequest("dpi must be between " + MIN_DPI + " and " + MAX_DPI);
+        }
+        final int columns = Optional.ofNullable(request.getColumns()).orElse(0);
+        final int rows = Optional.ofNullable(request.getRows()).orElse(0);
+        if (columns < 1 || rows < 1 || (long) columns * rows > MAX_LABELS_PER_PAGE) {
+            throw badRequest("columns and rows must be at least 1, with at most " + MAX_LABELS_PER_PAGE + " labels per page");
+        }
+        final var horizontal = Axis.of("width", pageSize.widthMm, columns, request.getLabelWidthMm(),
+                request.getMarginLeftMm(), request.getColumnGapMm());
+        final var vertical = Axis.of("height", pageSize.heightMm, rows, request.getLabelHeightMm(),
+                request.getMarginTopMm(), request.getRowGapMm());
+        return new SheetLayout(dpi, points(pageSize.widthMm), points(pageSize.heightMm),
+                pixels(pageSize.widthMm, dpi), pixels(pageSize.heightMm, dpi), columns, rows,
+                (int) Math.floor(horizontal.labelMm * dpi / MM_PER_INCH), (int) Math.floor(vertical.labelMm * dpi / MM_PER_INCH),
+                horizontal.positions(dpi), vertical.positions(dpi));
+    }
+
+    public int labelsPerPage() {
+        return columns * rows;
+    }
+
+    public int labelX(int cell) {
+        return columnX[cell % columns];
+    }
+
+    public int labelY(int cell) {
+        return rowY[cell / columns];
+    }
+
+    private static int pixels(double mm, int dpi) {
+        return (int) Math.round(mm * dpi / MM_PER_INCH);
+    }
+
+    private static double points(double mm) {
+        return mm * 72 / MM_PER_INCH;
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+
+    private enum PageSize {
+        A4(210, 297),
+        LETTER(215.9, 279.4);
+
+        private final double widthMm;
+        private final double heightMm;
+
+        PageSize(double widthMm, double heightMm) {
+            this.widthMm = widthMm;
+            this.heightMm = heightMm;
+        }
+
+        static PageSize of(String page) {
+            if (page == null) {
+                return A4;
+            }
+            try {
+                return valueOf(page.strip().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw badRequest("page must be one of a4, letter");
+            }
+        }
+    }
+
+    private record Axis(int count, double marginMm, double labelMm, double gapMm) {
+
+        static Axis of(String dimension, double pageMm, int count, Double labelMm, Double marginMm, Double gapMm) {
+            final double gap = Optional.ofNullable(gapMm).orElse(0d);
+            if (gap < 0 || (marginMm != null && marginMm < 0)) {
+                throw badRequest("margins and gaps cannot be negative");
+            }
+            final double label;
+            final double margin;
+            if (labelMm == null) {
+                margin = Optional.ofNullable(marginMm).orElse(DEFAULT_MARGIN_MM);
+                label = (pageMm - 2 * margin - (count - 1) * gap) / count;
+            } else {
+                label = labelMm;
+                margin = Optional.ofNullable(marginMm).orElse((pageMm - count * label - (count - 1) * gap) / 2);
+            }
+            // Meio milímetro de folga para arredondamentos das medidas das folhas comerciais
+            if (label <= 0 || margin < 0 || margin + count * label + (count - 1) * gap > pageMm + 0.5) {
+                throw badRequest("labels do not fit the page " + dimension);
+            }
+            return new Axis(count, margin, label, gap);
+        }
+
+        int[] positions(int dpi) {
+            final var positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = pixels(marginMm + i * (labelMm + gapMm), dpi);
+            }
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package br.com.thiago.geradorqrcode.sheet;
+
+import br.com.thiago.geradorqrcode.render.ModuleLayout;
+import br.com.thiago.geradorqrcode.render.PageBitmap;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Desenha as páginas das folhas de etiquetas num {@link ForkJoinPool} próprio.
+ * <p>
+ * As etiquetas de uma página são divididas ao meio recursivamente até poucos
+ * rótulos por tarefa; cada tarefa codifica os seus e pinta os módulos direto no
+ * {@link PageBitmap} compartilhado da página, sem imagem intermediária por
+ * etiqueta. A página pronta é codificada (PNG ou PDF) ainda no pool, fora do
+ * event loop.
+ */
+@Slf4j
+@Component
+public class SheetRenderer implements DisposableBean {
+
+    private static final int LABELS_PER_TASK = 4;
+
+    private final ForkJoinPool pool;
+    private final Counter pages;
+    private final Counter labels;
+
+    public SheetRenderer(@Value("${qrcode.sheet.parallelism:0}") int parallelism, MeterRegistry meterRegistry) {
+        final int poolSize = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(poolSize, forkJoinPool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("qr-sheet-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.pages = Counter.builder("qrcode.sheet.pages").register(meterRegistry);
+        this.labels = Counter.builder("qrcode.sheet.labels").register(meterRegistry);
+        log.info("Sheet renderer started with parallelism {}", poolSize);
+    }
+
+    /**
+     * Desenha uma página com {@code texts} (no máximo uma página de etiquetas) e
+     * devolve o resultado de {@code encoder} sobre ela.
+     *
+     * @param firstLabel índice global da primeira etiqueta, para as mensagens de erro
+     */
+    public <T> Mono<T> renderPage(SheetLayout layout, LabelSpec spec, List<String> texts, long firstLabel,
+                                  Function<PageBitmap, T> encoder) {
+        return Mono.fromFuture(() -> CompletableFuture.supplyAsync(() -> {
+            final var page = new PageBitmap(layout.pageWidth(), layout.pageHeight());
+            new CellTask(layout, spec, texts, firstLabel, page, 0, texts.size()).invoke();
+            pages.increment();
+            labels.increment(texts.size());
+            return encoder.apply(page);
+        }, pool));
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private static final class CellTask extends RecursiveAction {
+
+        private final SheetLayout layout;
+        private final LabelSpec spec;
+        private final List<String> texts;
+        private final long firstLabel;
+        private final PageBitmap page;
+        private final int from;
+        private final int to;
+
+        private CellTask(SheetLayout layout, LabelSpec spec, List<String> texts, long firstLabel, PageBitmap page, int from, int to) {
+            this.layout = layout;
+            this.spec = spec;
+            this.texts = texts;
+            this.firstLabel = firstLabel;
+            this.page = page;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LABELS_PER_TASK) {
+                for (int cell = from; cell < to; cell++) {
+                    draw(cell);
+                }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new CellTask(layout, spec, texts, firstLabel, page, from, middle),
+                    new CellTask(layout, spec, texts, firstLabel, page, middle, to));
+        }
+
+        private void draw(int cell) {
+            final long label = firstLabel + cell;
+            final var modules = encode(label, texts.get(cell));
+            final int x = layout.labelX(cell);
+            final int y = layout.labelY(cell);
+            // A última coluna/linha pode passar um pouco da página pela folga da validação
+            final int width = Math.min(layout.labelWidth(), layout.pageWidth() - x);
+            final int height = Math.min(layout.labelHeight(), layout.pageHeight() - y);
+            final var symbol = ModuleLayout.of(modules, width, height, spec.quietZone());
+            if (symbol.outputWidth() > width || symbol.outputHeight() > height) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Label " + label + " does not fit: the symbol needs "
+                        + symbol.outputWidth() + "x" + symbol.outputHeight() + " px at " + layout.dpi() + " dpi and the label has "
+                        + width + "x" + height);
+            }
+            final int scale = symbol.scale();
+            final int left = x + symbol.leftPadding();
+            for (int moduleY = 0; moduleY < symbol.moduleHeight(); moduleY++) {
+                final int top = y + symbol.topPadding() + moduleY * scale;
+                int moduleX = 0;
+                while (moduleX < symbol.moduleWidth()) {
+                    if (!modules.get(moduleX, moduleY)) {
+                        moduleX++;
+                        continue;
+                    }
+                    final int start = moduleX;
+                    while (moduleX < symbol.moduleWidth() && modules.get(moduleX, moduleY)) {
+                        moduleX++;
+                    }
+                    page.fill(left + start * scale, top, (moduleX - start) * scale, scale);
+                }
+            }
+        }
+
+        private BitMatrix encode(long label, String text) {
+            try {
+                return spec.encoder().encode(text, spec.hints());
+            } catch (WriterException | IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Label " + label + " cannot be encoded: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.thiago.geradorqrcode.shorturl;
+
+/**
+ * Codificação dos ids dos links curtos em base 62 ({@code 0-9a-zA-Z}).
+ */
+public final class Base62 {
+
+    /** Um long positivo cabe em 11 dígitos. */
+    public static final int MAX_LENGTH = 11;
+
+    private static final char[] ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private Base62() {
+    }
+
+    public static String encode(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative: " + value);
+        }
+        final var digits = new char[MAX_LENGTH];
+        int position = MAX_LENGTH;
+        do {
+            digits[--position] = ALPHABET[(int) (value % 62)];
+            value /= 62;
+        } while (value > 0);
+        return new String(digits, position, MAX_LENGTH - position);
+    }
+
+    /**
+     * Aceita só o que {@link #encode} pode produzir; serve para recusar lixo sem ir ao banco.
+     */
+    public static boolean isValid(String code) {
+        if (code == null || code.isEmpty() || code.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < code.length(); i++) {
+            final char c = code.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.thiago.geradorqrcode.shorturl;
+
+import br.com.thiago.geradorqrcode.repository.ShortUrlRepository;
+import br.com.thiago.geradorqrcode.webclient.urlshortener.UrlShortenerWebClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Encurtador dentro da aplicação: grava o código em {@code short_url} e devolve
+ * {@code <base-url>/r/<código>}, servido pelo {@code ShortUrlController}. Com
+ * {@code qrcode.short-url.engine=remote} volta a usar o serviço externo.
+ * <p>
+ * {@code qrcode.short-url.base-url} não tem padrão: um link para localhost
+ * impresso num QR Code não funciona em lugar nenhum, então a subida falha.
+ */
+@Component
+@ConditionalOnProperty(name = "qrcode.short-url.engine", havingValue = "local", matchIfMissing = true)
+public class LocalUrlShortener implements UrlShortenerWebClient {
+
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShortUrlResolver shortUrlResolver;
+    private final String redirectBaseUrl;
+
+    public LocalUrlShortener(ShortCodeGenerator shortCodeGenerator,
+                             ShortUrlRepository shortUrlRepository,
+                             ShortUrlResolver shortUrlResolver,
+                             @Value("${qrcode.short-url.base-url}") String baseUrl) {
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.shortUrlRepository = shortUrlRepository;
+        this.shortUrlResolver = shortUrlResolver;
+        if (!baseUrl.startsWith("http://") && !baseUrl.startsWith("https://")) {
+            throw new IllegalStateException("qrcode.short-url.base-url (QRCODE_SHORT_URL_BASE_URL) must be the public "
+                    + "http(s) address of this application when qrcode.short-url.engine=local, got '" + baseUrl + "'");
+        }
+        this.redirectBaseUrl = (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/") + "r/";
+    }
+
+    @Override
+    public Mono<String> shortenUrl(String url) {
+        return shortCodeGenerator.nextCode()
+                .flatMap(code -> shortUrlRepository.insert(code, url).thenReturn(code))
+                .doOnNext(code -> shortUrlResolver.remember(code, url))
+                .map(code -> redirectBaseUrl + code);
+    }
+}
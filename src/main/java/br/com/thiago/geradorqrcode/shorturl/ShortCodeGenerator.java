@@ -0,0 +1,82 @@
+package br.com.thiago.geradorqrcode.shorturl;
+
+import br.com.thiago.geradorqrcode.repository.ShortUrlRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera os códigos dos links curtos sem colisão entre réplicas e restarts.
+ * <p>
+ * Cada {@code nextval} da sequência {@code short_url_block_seq} reserva um bloco de
+ * {@value #BLOCK_SIZE} ids para esta instância, que os entrega a partir da memória;
+ * o banco só é consultado uma vez por bloco. Ids de um bloco não usado até o
+ * shutdown são descartados, o que só deixa buracos na numeração.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShortCodeGenerator {
+
+    /** Não pode mudar depois que houver códigos gravados: os blocos passariam a se sobrepor. */
+    static final long BLOCK_SIZE = 1000;
+
+    private final ShortUrlRepository shortUrlRepository;
+
+    private volatile Block block = new Block(0, 0);
+    private Mono<Void> refill;
+
+    public Mono<String> nextCode() {
+        return Mono.defer(() -> {
+            final var current = block;
+            final long id = current.next();
+            if (id >= 0) {
+                return Mono.just(Base62.encode(id));
+            }
+            return refill(current).then(nextCode());
+        });
+    }
+
+    private synchronized Mono<Void> refill(Block exhausted) {
+        if (block != exhausted) {
+            return Mono.empty();
+        }
+        if (refill == null) {
+            // Uma única busca por vez; quem chegar durante ela espera pelo mesmo bloco
+            refill = shortUrlRepository.nextBlock()
+                    .doOnNext(this::install)
+                    .doOnError(error -> install(null))
+                    .then()
+                    .cache();
+        }
+        return refill;
+    }
+
+    /**
+     * Troca o bloco e libera a próxima busca antes de avisar quem espera; se um
+     * deles esgotar o bloco novo, precisa iniciar outra busca, não reusar esta.
+     */
+    private synchronized void install(Long index) {
+        if (index != null) {
+            block = new Block(index * BLOCK_SIZE, (index + 1) * BLOCK_SIZE);
+        }
+        refill = null;
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+
+        private long next() {
+            final long id = next.getAndIncrement();
+            return id < end ? id : -1;
+        }
+    }
+}
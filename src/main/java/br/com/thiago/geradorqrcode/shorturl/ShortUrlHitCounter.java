@@ -0,0 +1,107 @@
+package br.com.thiago.geradorqrcode.shorturl;
+
+import br.com.thiago.geradorqrcode.repository.ShortUrlRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conta as leituras dos links curtos em memória e grava os totais em lote.
+ * <p>
+ * Um redirect só incrementa um {@link LongAdder}; a cada intervalo todos os
+ * contadores pendentes viram um único UPDATE por lote de códigos. Se a gravação
+ * falhar, os valores voltam para os contadores e entram na próxima rodada.
+ */
+@Slf4j
+@Component
+public class ShortUrlHitCounter implements DisposableBean {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final int maxBatchSize;
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public ShortUrlHitCounter(ShortUrlRepository shortUrlRepository,
+                              @Value("${qrcode.short-url.hits-batch-size:1000}") int maxBatchSize) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void increment(String code) {
+        pending.computeIfAbsent(code, key -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${qrcode.short-url.hits-flush-interval-ms:5000}")
+    public Mono<Void> flush() {
+        final List<HitBatch> batches = new ArrayList<>();
+        var batch = new HitBatch(maxBatchSize);
+        for (var entry : pending.entrySet()) {
+            final long hits = entry.getValue().sumThenReset();
+            if (hits == 0) {
+                // Sem leituras desde o último flush: libera a entrada
+                pending.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            batch.add(entry.getKey(), hits);
+            if (batch.size() == maxBatchSize) {
+                batches.add(batch);
+                batch = new HitBatch(maxBatchSize);
+            }
+        }
+        if (batch.size() > 0) {
+            batches.add(batch);
+        }
+        return Flux.fromIterable(batches)
+                .concatMap(this::write)
+                .then();
+    }
+
+    private Mono<Void> write(HitBatch batch) {
+        return shortUrlRepository.addHits(batch.codes.toArray(String[]::new), batch.hits.toArray(Long[]::new))
+                .onErrorResume(error -> {
+                    log.warn("Could not record {} short URL hit counts, keeping them for the next flush: {}",
+                            batch.size(), NestedExceptionUtils.getMostSpecificCause(error).getMessage());
+                    for (int i = 0; i < batch.size(); i++) {
+                        pending.computeIfAbsent(batch.codes.get(i), key -> new LongAdder()).add(batch.hits.get(i));
+                    }
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    @Override
+    public void destroy() {
+        flush().block(Duration.ofSeconds(5));
+    }
+
+    private static final class HitBatch {
+
+        private final List<String> codes;
+        private final List<Long> hits;
+
+        private HitBatch(int capacity) {
+            this.codes = new ArrayList<>(capacity);
+            this.hits = new ArrayList<>(capacity);
+        }
+
+        private void add(String code, long count) {
+            codes.add(code);
+            hits.add(count);
+        }
+
+        private int size() {
+            return codes.size();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.thiago.geradorqrcode.shorturl;
+
+import br.com.thiago.geradorqrcode.repository.ShortUrlRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resolve código → destino para os redirects, com os códigos mais lidos em memória.
+ * <p>
+ * Um link impresso é lido muitas vezes e nunca muda, então o destino fica no
+ * cache já como {@link URI} e o caminho quente não aloca nem consulta o banco.
+ * Códigos inexistentes não entram no cache.
+ */
+@Component
+public class ShortUrlResolver {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final AsyncCache<String, URI> targets;
+
+    public ShortUrlResolver(ShortUrlRepository shortUrlRepository,
+                            @Value("${qrcode.short-url.cache-max-entries:100000}") long maxEntries) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.targets = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .buildAsync();
+    }
+
+    public Mono<URI> resolve(String code) {
+        if (!Base62.isValid(code)) {
+            return Mono.empty();
+        }
+        return Mono.fromFuture(targets.get(code, (key, executor) -> shortUrlRepository.findTargetUrl(key)
+                .map(URI::create)
+                .toFuture()), true);
+    }
+
+    public void remember(String code, String targetUrl) {
+        targets.put(code, CompletableFuture.completedFuture(URI.create(targetUrl)));
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.thiago.geradorqrcode.webclient;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link WebClient} de um serviço externo com bulkhead e circuit breaker próprios.
+ * <p>
+ * Toda chamada passa por {@link #call}; só as idempotentes (como DELETE) devem
+ * usar {@link #idempotentCall}, que repete falhas transitórias com backoff e
+ * jitter. Com o circuito aberto ou o bulkhead cheio a chamada nem sai, e o
+ * cliente recebe 503.
+ */
+public class UpstreamClient {
+
+    private final String name;
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final RetryBackoffSpec retry;
+
+    UpstreamClient(String name, WebClient webClient, CircuitBreaker circuitBreaker, Bulkhead bulkhead, RetryBackoffSpec retry) {
+        this.name = name;
+        this.webClient = webClient;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retry = retry;
+    }
+
+    public WebClient webClient() {
+        return webClient;
+    }
+
+    public CircuitBreaker.State state() {
+        return circuitBreaker.getState();
+    }
+
+    public <T> Mono<T> call(Mono<T> request) {
+        return guarded(request)
+                .onErrorMap(UpstreamClient::isRejected, this::unavailable);
+    }
+
+    public <T> Mono<T> idempotentCall(Mono<T> request) {
+        return guarded(request)
+                .retryWhen(retry)
+                .onErrorMap(UpstreamClient::isRejected, this::unavailable);
+    }
+
+    /**
+     * Como {@link #idempotentCall(Mono)}, mas cada tentativa, inclusive as
+     * repetições, consome uma permissão do {@code rateLimiter}. A espera pela
+     * permissão fica fora do bulkhead, sem ocupar vaga.
+     */
+    public <T> Mono<T> idempotentCall(Mono<T> request, RateLimiter rateLimiter) {
+        return guarded(request)
+                .transformDeferred(RateLimiterOperator.of(rateLimiter))
+                .retryWhen(retry)
+                .onErrorMap(UpstreamClient::isRejected, this::unavailable);
+    }
+
+    private <T> Mono<T> guarded(Mono<T> request) {
+        return request
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private ResponseStatusException unavailable(Throwable error) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, name + " is unavailable", error);
+    }
+
+    private static boolean isRejected(Throwable error) {
+        return error instanceof CallNotPermittedException || error instanceof BulkheadFullException;
+    }
+
+    /**
+     * Falhas do serviço externo que valem nova tentativa e contam para abrir o
+     * circuito: 5xx, 429, timeouts e erros de conexão. Um 4xx é erro nosso.
+     */
+    static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
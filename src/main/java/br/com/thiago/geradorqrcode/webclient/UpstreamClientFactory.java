@@ -0,0 +1,104 @@
+package br.com.thiago.geradorqrcode.webclient;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Monta os {@link UpstreamClient}s dos serviços externos.
+ * <p>
+ * Cada serviço ganha um pool de conexões próprio e limitado: com o serviço fora
+ * do ar, as requisições esperam no máximo {@code pending-acquire-timeout} por uma
+ * conexão em vez de se acumularem sem limite. O pool publica as métricas
+ * {@code reactor.netty.connection.provider.*}; circuit breaker e bulkhead, as
+ * {@code resilience4j.*}, com o nome do serviço como tag.
+ */
+@Slf4j
+@Component
+public class UpstreamClientFactory implements DisposableBean {
+
+    private final WebClient.Builder builder;
+    private final MeterRegistry meterRegistry;
+    private final UpstreamClientSettings settings;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
+    public UpstreamClientFactory(WebClient.Builder builder, MeterRegistry meterRegistry, UpstreamClientSettings settings) {
+        this.builder = builder;
+        this.meterRegistry = meterRegistry;
+        this.settings = settings;
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.failureRateThreshold())
+                .slidingWindowSize(settings.slidingWindowSize())
+                .minimumNumberOfCalls(settings.minimumCalls())
+                .waitDurationInOpenState(settings.waitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .recordException(UpstreamClient::isTransient)
+                .build());
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.maxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    public UpstreamClient create(String name, String baseUrl) {
+        final var connectionProvider = ConnectionProvider.builder(name)
+                .maxConnections(settings.maxConnections())
+                .pendingAcquireMaxCount(settings.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.pendingAcquireTimeout())
+                .maxIdleTime(settings.maxIdleTime())
+                .metrics(true)
+                .build();
+        connectionProviders.add(connectionProvider);
+        final var httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.connectTimeout().toMillis())
+                .responseTimeout(settings.responseTimeout());
+        final var webClient = builder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        final var retries = Counter.builder("client.http.retries")
+                .tag("upstream", name)
+                .description("Retries of idempotent calls after a transient upstream failure")
+                .register(meterRegistry);
+        final var retry = Retry.backoff(settings.retryMaxAttempts() - 1L, settings.retryBackoff())
+                .jitter(0.5)
+                .filter(UpstreamClient::isTransient)
+                .doBeforeRetry(signal -> {
+                    retries.increment();
+                    log.warn("Retrying {} call (attempt {}): {}", name, signal.totalRetries() + 2, signal.failure().toString());
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+
+        log.info("Upstream {} at {} with {} connections and {} concurrent calls",
+                name, baseUrl, settings.maxConnections(), settings.maxConcurrentCalls());
+        return new UpstreamClient(name, webClient, circuitBreakers.circuitBreaker(name), bulkheads.bulkhead(name), retry);
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.thiago.geradorqrcode.webclient;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuração comum dos clientes HTTP dos serviços externos ({@code client.http.*}).
+ */
+@Component
+public record UpstreamClientSettings(
+        @Value("${client.http.max-connections:50}") int maxConnections,
+        @Value("${client.http.pending-acquire-max-count:200}") int pendingAcquireMaxCount,
+        @Value("${client.http.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+        @Value("${client.http.max-idle-time:30s}") Duration maxIdleTime,
+        @Value("${client.http.connect-timeout:5s}") Duration connectTimeout,
+        @Value("${client.http.response-timeout:30s}") Duration responseTimeout,
+        @Value("${client.http.max-concurrent-calls:50}") int maxConcurrentCalls,
+        @Value("${client.http.retry.max-attempts:3}") int retryMaxAttempts,
+        @Value("${client.http.retry.backoff:200ms}") Duration retryBackoff,
+        @Value("${client.http.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+        @Value("${client.http.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+        @Value("${client.http.circuit-breaker.minimum-calls:10}") int minimumCalls,
+        @Value("${client.http.circuit-breaker.wait-in-open-state:30s}") Duration waitInOpenState) {
+}
@@ -2,13 +2,18 @@ package br.com.thiago.geradorqrcode.webclient.googledriveapi;
 
 import br.com.thiago.geradorqrcode.webclient.googledriveapi.dto.GoogleDriveApiResponse;
 import br.com.thiago.geradorqrcode.webclient.googledriveapi.dto.UploadFileRequest;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import org.springframework.core.io.Resource;
 import reactor.core.publisher.Mono;
 
-import java.io.File;
-
 public interface GoogleDriveApiWebClient {
 
-    Mono<GoogleDriveApiResponse> uploadFile(File file, UploadFileRequest uploadFileRequest);
+    Mono<GoogleDriveApiResponse> uploadFile(Resource file, UploadFileRequest uploadFileRequest);
 
     Mono<Void> deleteFile(String projectId, String fileId);
+
+    /**
+     * Remoção limitada por {@code rateLimiter}: cada tentativa, inclusive as repetições, consome uma permissão.
+     */
+    Mono<Void> deleteFile(String projectId, String fileId, RateLimiter rateLimiter);
 }
@@ -1,56 +1,69 @@
 package br.com.thiago.geradorqrcode.webclient.googledriveapi.impl;
 
+import br.com.thiago.geradorqrcode.webclient.UpstreamClient;
+import br.com.thiago.geradorqrcode.webclient.UpstreamClientFactory;
 import br.com.thiago.geradorqrcode.webclient.googledriveapi.GoogleDriveApiWebClient;
 import br.com.thiago.geradorqrcode.webclient.googledriveapi.dto.GoogleDriveApiResponse;
 import br.com.thiago.geradorqrcode.webclient.googledriveapi.dto.UploadFileRequest;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.core.io.FileSystemResource;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
-import java.io.File;
-
 @Component
 public class GoogleDriveApiWebClientImpl implements GoogleDriveApiWebClient {
 
-    private final WebClient webClient;
+    private final UpstreamClient upstream;
     private final ObjectMapper objectMapper;
 
-    public GoogleDriveApiWebClientImpl(WebClient.Builder builder, ObjectMapper objectMapper) {
-        this.webClient = builder.baseUrl("https://google-drive-api-service.onrender.com").build();
+    public GoogleDriveApiWebClientImpl(UpstreamClientFactory upstreamClientFactory,
+                                       ObjectMapper objectMapper,
+                                       @Value("${client.google-drive-api-service.url}") String baseUrl) {
+        this.upstream = upstreamClientFactory.create("google-drive-api", baseUrl);
         this.objectMapper = objectMapper;
     }
 
     @Override
-    public Mono<GoogleDriveApiResponse> uploadFile(File file, UploadFileRequest request) {
-        return webClient.post()
+    public Mono<GoogleDriveApiResponse> uploadFile(Resource file, UploadFileRequest request) {
+        // Upload não é idempotente: repetir criaria arquivos duplicados no Drive
+        return upstream.call(upstream.webClient().post()
                 .uri("/v1/google-drive/upload")
                 .contentType(MediaType.MULTIPART_FORM_DATA)
                 .body(BodyInserters.fromMultipartData(createMultipartBody(file, request)))
                 .retrieve()
-                .bodyToMono(GoogleDriveApiResponse.class);
+                .bodyToMono(GoogleDriveApiResponse.class));
     }
 
     @Override
     public Mono<Void> deleteFile(String projectId, String fileId) {
-        return webClient.delete()
-                .uri(String.format("/v1/google-drive/resources/%s/delete/%s", projectId, fileId))
+        return upstream.idempotentCall(deleteRequest(projectId, fileId));
+    }
+
+    @Override
+    public Mono<Void> deleteFile(String projectId, String fileId, RateLimiter rateLimiter) {
+        return upstream.idempotentCall(deleteRequest(projectId, fileId), rateLimiter);
+    }
+
+    private Mono<Void> deleteRequest(String projectId, String fileId) {
+        return upstream.webClient().delete()
+                .uri("/v1/google-drive/resources/{projectId}/delete/{fileId}", projectId, fileId)
                 .retrieve()
                 .bodyToMono(Void.class);
     }
 
-    private MultiValueMap<String, HttpEntity<?>> createMultipartBody(File file, UploadFileRequest request) {
+    private MultiValueMap<String, HttpEntity<?>> createMultipartBody(Resource file, UploadFileRequest request) {
         MultipartBodyBuilder builder = new MultipartBodyBuilder();
 
         // Adiciona o arquivo com o tipo de conteúdo correto
-        builder.part("file", new FileSystemResource(file))
+        builder.part("file", file)
                 .contentType(MediaType.APPLICATION_OCTET_STREAM);
 
         // Converte o objeto UploadFileRequest para JSON e define o tipo de conteúdo como application/json
@@ -1,25 +1,30 @@
 package br.com.thiago.geradorqrcode.webclient.urlshortener.impl;
 
+import br.com.thiago.geradorqrcode.webclient.UpstreamClient;
+import br.com.thiago.geradorqrcode.webclient.UpstreamClientFactory;
 import br.com.thiago.geradorqrcode.webclient.urlshortener.UrlShortenerWebClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 @Component
+@ConditionalOnProperty(name = "qrcode.short-url.engine", havingValue = "remote")
 public class UrlShortenerWebClientImpl implements UrlShortenerWebClient {
 
-    private final WebClient webClient;
+    private final UpstreamClient upstream;
 
-    public UrlShortenerWebClientImpl(WebClient.Builder builder) {
-        this.webClient = builder.baseUrl("https://short-q0z8.onrender.com").build();
+    public UrlShortenerWebClientImpl(UpstreamClientFactory upstreamClientFactory,
+                                     @Value("${client.encurtador-url.url}") String baseUrl) {
+        this.upstream = upstreamClientFactory.create("url-shortener", baseUrl);
     }
 
     @Override
     public Mono<String> shortenUrl(String url) {
-        return webClient.post()
+        return upstream.call(upstream.webClient().post()
                 .uri("/shorten")
                 .bodyValue(url)
                 .retrieve()
-                .bodyToMono(String.class);
+                .bodyToMono(String.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+-- Tabela que já existia antes das migrações; o "if not exists" deixa esta
+-- versão passar em bancos criados à mão (baseline-version 0).
+create table if not exists qr_code (
+    id              bigserial primary key,
+    url             text,
+    file_id         varchar(255),
+    is_active       boolean,
+    expiration_date timestamp,
+    created_at      timestamp default now(),
+    deleted_tmsp    timestamp
+);
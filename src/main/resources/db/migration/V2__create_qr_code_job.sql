@@ -0,0 +1,21 @@
+create table if not exists qr_code_job (
+    id              bigserial primary key,
+    job_id          uuid        not null unique,
+    text            text        not null,
+    status          varchar(16) not null,
+    stage           varchar(16) not null,
+    attempts        integer     not null default 0,
+    next_attempt_at timestamp   not null default now(),
+    locked_until    timestamp,
+    last_error      text,
+    file_id         varchar(255),
+    drive_url       text,
+    short_url       text,
+    qr_code_id      bigint,
+    created_at      timestamp   not null default now(),
+    updated_at      timestamp   not null default now()
+);
+
+create index if not exists qr_code_job_ready_idx
+    on qr_code_job (next_attempt_at)
+    where status in ('PENDING', 'RUNNING');
@@ -0,0 +1,10 @@
+-- cada valor reserva um bloco de 1000 códigos (ShortCodeGenerator.BLOCK_SIZE)
+create sequence if not exists short_url_block_seq;
+
+create table if not exists short_url (
+    code        varchar(11) primary key,
+    target_url  text        not null,
+    hits        bigint      not null default 0,
+    created_at  timestamp   not null default now(),
+    last_hit_at timestamp
+);
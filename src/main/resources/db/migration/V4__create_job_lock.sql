@@ -0,0 +1,5 @@
+create table if not exists job_lock (
+    name         varchar(64) primary key,
+    owner        varchar(128) not null,
+    locked_until timestamp    not null
+);
@@ -0,0 +1,26 @@
+-- Fora de transação (V5__index_qr_code.sql.conf): com "concurrently" os índices
+-- são criados sem bloquear as escritas em qr_code.
+
+-- Sobra de uma tentativa anterior que falhou no meio: um índice concurrently
+-- interrompido fica inválido, e o "if not exists" abaixo o aceitaria como pronto
+drop index concurrently if exists qr_code_file_id_uidx;
+
+-- file_id duplicado (o mesmo upload gravado duas vezes) impediria o índice único.
+-- Fica a linha mais antiga, que continua responsável pelo arquivo no Drive; as
+-- demais são desativadas e perdem o file_id. As URLs curtas delas continuam valendo.
+update qr_code q
+set file_id = null,
+    is_active = false,
+    deleted_tmsp = coalesce(q.deleted_tmsp, now())
+where q.file_id is not null
+  and exists (select 1 from qr_code o where o.file_id = q.file_id and o.id < q.id);
+
+-- findIdByFileId / deleteQRCode
+create unique index concurrently if not exists qr_code_file_id_uidx on qr_code (file_id);
+
+drop index concurrently if exists qr_code_active_expiration_idx;
+
+-- Job de expiração: só linhas ativas, na ordem do cursor (expiration_date, id)
+create index concurrently if not exists qr_code_active_expiration_idx
+    on qr_code (expiration_date, id)
+    where is_active;
@@ -0,0 +1,7 @@
+create table if not exists rate_limit_bucket (
+    client_key varchar(128)     primary key,
+    tokens     double precision not null,
+    updated_at timestamp        not null
+);
+
+create index if not exists idx_rate_limit_bucket_updated_at on rate_limit_bucket (updated_at);
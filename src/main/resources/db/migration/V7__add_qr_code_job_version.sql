@@ -0,0 +1,2 @@
+-- Trava otimista: o claim e cada etapa incrementam; um worker que perdeu o lease falha ao gravar
+alter table qr_code_job add column if not exists version bigint not null default 0;
@@ -3,7 +3,7 @@ package br.com.thiago.geradorqrcode;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"spring.flyway.enabled=false", "qrcode.short-url.base-url=http://localhost:8080"})
 class GeradorqrcodeApplicationTests {
 
     @Test
@@ -0,0 +1,85 @@
+package br.com.thiago.geradorqrcode.barcode;
+
+import br.com.thiago.geradorqrcode.controller.dto.GenerateQRCodeRequest;
+import br.com.thiago.geradorqrcode.service.QRCodeService;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.common.BitMatrix;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BarcodeEncodersTest {
+
+    private final BarcodeEncoders encoders = new BarcodeEncoders(List.of(new QrCodeEncoder(), new DataMatrixEncoder(),
+            new AztecEncoder(), new Code128Encoder(), new Ean13Encoder()));
+
+    @ParameterizedTest
+    @CsvSource({
+            "code_128, ABC-12345, 0.25",
+            "ean_13, 590123412345, 0.7",
+    })
+    void linearCodesRepeatTheBarRowUpToTheHeightRatio(String format, String text, double heightRatio) throws Exception {
+        final BitMatrix modules = encoders.of(format).encode(text, Map.of());
+
+        assertEquals(Math.round(modules.getWidth() * heightRatio), modules.getHeight());
+        final var bars = modules.getRow(0, null);
+        for (int y = 1; y < modules.getHeight(); y++) {
+            assertEquals(bars, modules.getRow(y, null), "row " + y);
+        }
+    }
+
+    @Test
+    void ean13AcceptsTwelveDigitsOrThirteenWithCheckDigit() throws Exception {
+        final var encoder = encoders.get(BarcodeFormat.EAN_13);
+
+        // 7 é o verificador de 590123412345
+        assertEquals(encoder.encode("5901234123457", Map.of()), encoder.encode("590123412345", Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode("5901234123458", Map.of()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pdf417", "qr", "", "upc_a"})
+    void unknownFormatIsBadRequest(String format) {
+        final var error = assertThrows(ResponseStatusException.class, () -> encoders.of(format));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+    }
+
+    @Test
+    void formatNamesAreCaseAndDashInsensitive() {
+        assertEquals(BarcodeFormat.DATA_MATRIX, encoders.of(" Data-Matrix ").format());
+        assertEquals(BarcodeFormat.QR_CODE, encoders.of(null).format());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "code_128, /logo.png, ",
+            "ean_13, , H",
+            "data_matrix, , M",
+    })
+    void qrOnlyOptionsAreRejectedForOtherFormats(String format, String logoPath, String errorCorrection) {
+        final var service = new QRCodeService(null, null, null, null, null, null, null, null, List.of(), encoders, null, null);
+        ReflectionTestUtils.setField(service, "maxSize", 4096);
+        final var request = GenerateQRCodeRequest.builder()
+                .text("590123412345")
+                .format(format)
+                .logoPath(logoPath)
+                .errorCorrection(errorCorrection)
+                .build();
+
+        final var error = assertThrows(ResponseStatusException.class, () -> service.renderSpec(request).block());
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        assertEquals("logo_path, error_correction and qr_version are only supported for qr_code", error.getReason());
+    }
+}
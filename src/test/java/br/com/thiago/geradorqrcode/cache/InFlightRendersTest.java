@@ -0,0 +1,64 @@
+package br.com.thiago.geradorqrcode.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InFlightRendersTest {
+
+    private static final QrCacheKey KEY = new QrCacheKey("0123456789abcdef0123456789abcdef");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InFlightRenders inFlightRenders = new InFlightRenders(meterRegistry);
+
+    @Test
+    void concurrentIdenticalRequestsShareOneRender() {
+        final var renders = new AtomicInteger();
+        final var image = new byte[]{1, 2, 3};
+
+        final var results = Flux.range(0, 200)
+                .flatMap(ignored -> inFlightRenders.join(KEY, () -> Mono.fromSupplier(() -> {
+                    renders.incrementAndGet();
+                    return image;
+                }).delayElement(Duration.ofMillis(100))), 200)
+                .collectList()
+                .block();
+
+        assertEquals(1, renders.get());
+        assertEquals(200, results.size());
+        results.forEach(result -> assertSame(image, result));
+        assertEquals(1, meterRegistry.get("qrcode.render.coalescing").tag("role", "leader").counter().count());
+        assertEquals(199, meterRegistry.get("qrcode.render.coalescing").tag("role", "follower").counter().count());
+        assertEquals(0, meterRegistry.get("qrcode.render.in-flight").gauge().value());
+    }
+
+    @Test
+    void cancellingOneSubscriberDoesNotCancelTheSharedRender() {
+        final var sink = Sinks.<byte[]>one();
+        final var renderCancelled = new AtomicBoolean();
+        final var image = new byte[]{4, 5, 6};
+
+        final var first = inFlightRenders.join(KEY, () -> sink.asMono().doOnCancel(() -> renderCancelled.set(true)))
+                .subscribe();
+        final var second = inFlightRenders.join(KEY, () -> Mono.error(new AssertionError("must join the first render")))
+                .toFuture();
+
+        first.dispose();
+        sink.tryEmitValue(image);
+
+        assertFalse(renderCancelled.get());
+        assertSame(image, second.join());
+        assertTrue(second.isDone());
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.thiago.geradorqrcode.controller.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * O data URI escrito em streaming tem que sair igual à String montada inteira,
+ * inclusive aninhado e seguido de outros campos.
+ */
+class PngDataUriSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesTheSameDataUriAsTheFullString() throws Exception {
+        // Maior que o buffer de caracteres e com tamanho que exige padding
+        final var image = new byte[20_000];
+        ThreadLocalRandom.current().nextBytes(image);
+
+        final var json = objectMapper.readTree(objectMapper.writeValueAsString(new GenerateQrCodeResponse(image, "https://s.example/abc")));
+
+        assertEquals("data:image/png;base64," + Base64.getEncoder().encodeToString(image), json.get("qr_code").asText());
+        assertEquals("https://s.example/abc", json.get("url").asText());
+    }
+
+    @Test
+    void writesNestedInsideTheJobResponse() throws Exception {
+        final var image = new byte[]{1, 2, 3, 4};
+        final var job = QrCodeJobResponse.builder()
+                .jobId(UUID.randomUUID())
+                .status("DONE")
+                .result(new GenerateQrCodeResponse(image, "https://s.example/abc"))
+                .build();
+
+        final var json = objectMapper.readTree(objectMapper.writeValueAsString(job));
+        final var tree = objectMapper.valueToTree(job);
+
+        assertEquals("data:image/png;base64,AQIDBA==", json.at("/result/qr_code").asText());
+        assertEquals("data:image/png;base64,AQIDBA==", tree.at("/result/qr_code").asText());
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.thiago.geradorqrcode.decode;
+
+import br.com.thiago.geradorqrcode.barcode.QrCodeEncoder;
+import br.com.thiago.geradorqrcode.render.QrPngRenderer;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class RasterLuminanceSourceTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_BYTE_GRAY,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_BYTE_BINARY,
+            BufferedImage.TYPE_BYTE_INDEXED})
+    void readsSameLuminanceAsZxingWithoutCopying(int type) {
+        final var image = noise(type, 37, 23);
+        final var source = RasterLuminanceSource.of(image);
+        assertNotNull(source);
+        final var expected = new BufferedImageLuminanceSource(image);
+
+        assertArrayEquals(expected.getMatrix(), source.getMatrix());
+        assertArrayEquals(expected.getRow(11, null), source.getRow(11, null));
+        assertArrayEquals(expected.crop(5, 3, 20, 12).getMatrix(), source.crop(5, 3, 20, 12).getMatrix());
+    }
+
+    @Test
+    void verifierPathReadsGeneratedPngBack() throws WriterException {
+        final var text = "https://example.com/campanha/42";
+        final var png = new QrPngRenderer().render(new QrCodeEncoder().encode(text, Map.of()), 300, 300, 1, 0xFF000000, 0xFFFFFFFF);
+        final var scheduler = new DecodeScheduler(1, 4, new SimpleMeterRegistry());
+        try {
+            final var decoder = new BarcodeDecoder(scheduler, DataSize.ofMegabytes(1), 4096, 50_000_000, true);
+
+            assertEquals(Optional.of(text), decoder.read(png, BarcodeFormat.QR_CODE).block());
+        } finally {
+            scheduler.destroy();
+        }
+    }
+
+    private static BufferedImage noise(int type, int width, int height) {
+        final var image = new BufferedImage(width, height, type);
+        final var random = new Random(type);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // Alguns pixels totalmente transparentes, que devem virar branco
+                final int alpha = random.nextInt(8) == 0 ? 0 : 0xFF;
+                image.setRGB(x, y, new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), alpha).getRGB());
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.thiago.geradorqrcode.observability;
+
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QrPipelineObservationsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QrPipelineObservations observations;
+
+    QrPipelineObservationsTest() {
+        final var observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        observations = new QrPipelineObservations(observationRegistry, meterRegistry);
+    }
+
+    @Test
+    void successTagsOutcomeWithoutError() {
+        StepVerifier.create(observations.operation("generate", Mono.just("png")))
+                .expectNext("png")
+                .verifyComplete();
+
+        assertEquals(1, timerCount(QrPipelineObservations.OPERATION, "operation", "generate", "success", "none"));
+    }
+
+    @Test
+    void clientAndServerErrorsAreTaggedApart() {
+        StepVerifier.create(observations.stage(PipelineStage.ENCODE,
+                        Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "text is required"))))
+                .verifyError(ResponseStatusException.class);
+        StepVerifier.create(observations.stage(PipelineStage.DRIVE_UPLOAD,
+                        Mono.error(new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Drive unavailable"))))
+                .verifyError(ResponseStatusException.class);
+
+        assertEquals(1, timerCount(QrPipelineObservations.STAGE, "stage", "encode", "client_error", "ResponseStatusException"));
+        assertEquals(1, timerCount(QrPipelineObservations.STAGE, "stage", "drive_upload", "server_error", "ResponseStatusException"));
+    }
+
+    @Test
+    void synchronousStageRecordsTheThrownError() {
+        assertThrows(IllegalStateException.class, () -> observations.stage(PipelineStage.PNG_ENCODE, () -> {
+            throw new IllegalStateException("encoder failed");
+        }));
+
+        assertEquals(1, timerCount(QrPipelineObservations.STAGE, "stage", "png_encode", "server_error", "IllegalStateException"));
+    }
+
+    @Test
+    void cancellationIsTaggedCancelled() {
+        StepVerifier.create(observations.operation("batch", Mono.never()))
+                .thenCancel()
+                .verify();
+
+        assertEquals(1, timerCount(QrPipelineObservations.OPERATION, "operation", "batch", "cancelled", "none"));
+    }
+
+    private long timerCount(String name, String key, String value, String outcome, String error) {
+        return meterRegistry.get(name)
+                .tag(key, value)
+                .tag(QrPipelineObservations.OUTCOME, outcome)
+                .tag("error", error)
+                .timer()
+                .count();
+    }
+}
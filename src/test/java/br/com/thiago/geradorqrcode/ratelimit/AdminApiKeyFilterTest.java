@@ -0,0 +1,67 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import br.com.thiago.geradorqrcode.controller.LogoAdminController;
+import br.com.thiago.geradorqrcode.logo.LogoStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AdminApiKeyFilterTest {
+
+    private final LogoStore logoStore = mock(LogoStore.class);
+    private final WebTestClient client = WebTestClient.bindToController(new LogoAdminController(logoStore))
+            .webFilter(new AdminApiKeyFilter("X-Admin-Key", Set.of("admin-key")))
+            .build();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/admin/logos", "/admin;x=1/logos", "/%61dmin/logos", "/admin/logos;x=1"})
+    void rejectsPathVariantsThatStillRouteToTheAdminController(String path) {
+        client.delete()
+                .uri(URI.create(path))
+                .exchange()
+                .expectStatus().isUnauthorized();
+        client.delete()
+                .uri(URI.create(path))
+                .header("X-Admin-Key", "wrong")
+                .exchange()
+                .expectStatus().isForbidden();
+        client.post()
+                .uri(URI.create(path.replace("/logos", "/logos/warm")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[]")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        verify(logoStore, never()).purgeAll();
+    }
+
+    @Test
+    void closedWhenNoAdminKeyIsConfigured() {
+        WebTestClient.bindToController(new LogoAdminController(logoStore))
+                .webFilter(new AdminApiKeyFilter("X-Admin-Key", Set.of()))
+                .build()
+                .delete()
+                .uri("/admin/logos")
+                .header("X-Admin-Key", "")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/admin/logos", "/%61dmin/logos"})
+    void acceptsConfiguredKey(String path) {
+        client.delete()
+                .uri(URI.create(path))
+                .header("X-Admin-Key", "admin-key")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemRateLimiterTest {
+
+    // Balde de 10 fichas repondo 100/s; cada etiqueta custa 1
+    private static final RateLimitSettings SETTINGS = new RateLimitSettings(true, 10, 100, 100, "X-Api-Key", Set.of(), 0,
+            1, 10, 1, 5, 1, 5, 5, 1, 1, Duration.ofMillis(500), 0.9);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemRateLimiter limiter = new ItemRateLimiter(SETTINGS, new LocalRateLimiterBackend(SETTINGS), meterRegistry);
+
+    @Test
+    void waitsForRefillInChunksNoLargerThanCapacity() {
+        final var exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/qrcode/sheet"));
+        exchange.getAttributes().put(RateLimitFilter.CLIENT_ATTRIBUTE, "ip:10.0.0.1");
+
+        // 25 fichas num balde de 10: duas esperas pela reposição em vez de um erro
+        StepVerifier.create(limiter.sheetLabels(exchange).acquire(25))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertTrue(meterRegistry.counter("qrcode.rate-limit.throttled", "route", "sheet").count() >= 2);
+    }
+
+    @Test
+    void unlimitedWhenFilterDidNotChargeTheRequest() {
+        final var exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/qrcode/batch"));
+
+        assertSame(ItemPermits.UNLIMITED, limiter.batchItems(exchange));
+    }
+}
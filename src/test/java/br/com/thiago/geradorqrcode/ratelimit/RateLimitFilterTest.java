@@ -0,0 +1,73 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import br.com.thiago.geradorqrcode.render.RenderScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest {
+
+    // Balde de 5 fichas sem reposição útil; gerar custa as 5
+    private static final RateLimitSettings SETTINGS = new RateLimitSettings(true, 5, 0.001, 100, "X-Api-Key", Set.of(), 0,
+            5, 10, 1, 5, 1, 5, 5, 1, 1, Duration.ofMillis(500), 0.9);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(SETTINGS, new LocalRateLimiterBackend(SETTINGS),
+            new LoadShedder(new RenderScheduler(1, 1, meterRegistry), SETTINGS), meterRegistry);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/qrcode;a/generate", "/%71rcode/generate", "/qrcode/generate;x=1"})
+    void chargesPathVariantsAsTheRouteTheyReach(String path) {
+        StepVerifier.create(filter.filter(exchange(path), exchange -> Mono.empty()))
+                .expectComplete()
+                .verify();
+        StepVerifier.create(filter.filter(exchange(path), exchange -> Mono.empty()))
+                .expectErrorSatisfies(error -> assertEquals(HttpStatus.TOO_MANY_REQUESTS, ((ResponseStatusException) error).getStatusCode()))
+                .verify();
+        assertEquals(1, meterRegistry.counter("qrcode.rate-limit.rejected", "route", "generate", "reason", "rate_limited").count());
+    }
+
+    @Test
+    void keysByTheHopAppendedByTheOutermostTrustedProxy() {
+        // Dois proxies: o cliente é a penúltima entrada, o resto à esquerda é dele
+        final var settings = new RateLimitSettings(true, 5, 0.001, 100, "X-Api-Key", Set.of(), 2,
+                5, 10, 1, 5, 1, 5, 5, 1, 1, Duration.ofMillis(500), 0.9);
+        final var filter = new RateLimitFilter(settings, new LocalRateLimiterBackend(settings),
+                new LoadShedder(new RenderScheduler(1, 1, meterRegistry), settings), meterRegistry);
+
+        StepVerifier.create(filter.filter(forwarded("1.1.1.1, 203.0.113.7, 10.0.0.2"), exchange -> Mono.empty()))
+                .expectComplete()
+                .verify();
+        StepVerifier.create(filter.filter(forwarded("9.9.9.9, 203.0.113.7, 10.0.0.2"), exchange -> Mono.empty()))
+                .expectError(ResponseStatusException.class)
+                .verify();
+        StepVerifier.create(filter.filter(forwarded("203.0.113.8, 10.0.0.2"), exchange -> Mono.empty()))
+                .expectComplete()
+                .verify();
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.POST, URI.create(path)).remoteAddress(new InetSocketAddress("10.0.0.1", 4000)));
+    }
+
+    private static MockServerWebExchange forwarded(String forwardedFor) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/qrcode/generate")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 4000))
+                .header("X-Forwarded-For", forwardedFor));
+    }
+}
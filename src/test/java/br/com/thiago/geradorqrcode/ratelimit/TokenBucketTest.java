@@ -0,0 +1,58 @@
+package br.com.thiago.geradorqrcode.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void refillsAtConfiguredRateUpToCapacity() {
+        final var bucket = new TokenBucket(10, 2, 0);
+
+        assertEquals(0, bucket.tryConsume(10, 0));
+        // Faltam 3 fichas a 2/s: 1,5 s de espera
+        assertEquals(SECOND * 3 / 2, bucket.tryConsume(3, 0));
+        assertEquals(0, bucket.tryConsume(3, SECOND * 3 / 2));
+        // Uma hora parado não enche além da capacidade
+        assertEquals(0, bucket.tryConsume(10, SECOND * 3600));
+        assertTrue(bucket.tryConsume(1, SECOND * 3600) > 0);
+    }
+
+    @Test
+    void concurrentConsumersNeverSpendTheSameToken() throws InterruptedException {
+        final var bucket = new TokenBucket(1000, 0.000001, 0);
+        final var granted = new AtomicInteger();
+        final var start = new CountDownLatch(1);
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int j = 0; j < 500; j++) {
+                        if (bucket.tryConsume(1, 0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1000, granted.get());
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.thiago.geradorqrcode.render;
+
+import br.com.thiago.geradorqrcode.barcode.QrCodeEncoder;
+import com.google.zxing.common.BitMatrix;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModuleRectsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "https://example.com", "https://example.com/campanha?utm_source=email&utm_medium=qr&utm_campaign=black-friday"})
+    void rectanglesCoverExactlyTheDarkModulesWithoutOverlap(String text) throws Exception {
+        final var modules = new QrCodeEncoder().encode(text, Map.of());
+
+        final var covered = new BitMatrix(modules.getWidth(), modules.getHeight());
+        final int[] rects = {0};
+        ModuleRects.forEach(modules, (x, y, width, height) -> {
+            rects[0]++;
+            for (int j = y; j < y + height; j++) {
+                for (int i = x; i < x + width; i++) {
+                    assertFalse(covered.get(i, j), "overlap at (" + i + ", " + j + ")");
+                    covered.set(i, j);
+                }
+            }
+        });
+
+        assertEquals(modules, covered);
+        int darkModules = 0;
+        for (int y = 0; y < modules.getHeight(); y++) {
+            for (int x = 0; x < modules.getWidth(); x++) {
+                darkModules += modules.get(x, y) ? 1 : 0;
+            }
+        }
+        assertTrue(rects[0] < darkModules / 2, rects[0] + " rectangles for " + darkModules + " modules");
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.thiago.geradorqrcode.render;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaletteTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "#369, FF336699",
+            "#336699, FF336699",
+            "#FFF, FFFFFFFF",
+            "0x80336699, 80336699",
+            "0XFF000000, FF000000",
+            "00ffffff, 00FFFFFF"
+    })
+    void parsesEverySupportedNotationToArgb(String value, String argb) {
+        assertEquals((int) Long.parseLong(argb, 16), Palette.parseColor(value, "foreground_color"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "#", "#12", "#12345", "#1234567g", "0x123456", "0xFF00000g", "red", "+FFFFFFF", "#-12"})
+    void rejectsAnythingElseWithBadRequest(String value) {
+        final var error = assertThrows(ResponseStatusException.class, () -> Palette.parseColor(value, "background_color"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        assertEquals("background_color must be #RGB, #RRGGBB or 0xAARRGGBB", error.getReason());
+    }
+
+    @Test
+    void internsRepeatedPairs() {
+        assertSame(Palette.DEFAULT, Palette.parse(null, null));
+        assertSame(Palette.DEFAULT, Palette.parse("#000", "0xFFFFFFFF"));
+        assertSame(Palette.parse("#336699", "#fff"), Palette.parse("0xFF336699", "#FFFFFF"));
+    }
+}
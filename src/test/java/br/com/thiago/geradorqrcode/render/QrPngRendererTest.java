@@ -0,0 +1,55 @@
+package br.com.thiago.geradorqrcode.render;
+
+import br.com.thiago.geradorqrcode.barcode.QrCodeEncoder;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.client.j2se.MatrixToImageConfig;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QrPngRendererTest {
+
+    private final QrPngRenderer renderer = new QrPngRenderer();
+
+    @ParameterizedTest
+    @CsvSource({
+            "https://example.com, 300, 1, 0xFF000000, 0xFFFFFFFF",
+            "https://example.com/campanha?utm_source=email&utm_medium=qr, 300, 1, 0xFF1A237E, 0xFFFFF8E1",
+            "texto curto, 301, 4, 0x80000000, 0x00FFFFFF",
+            "a, 57, 0, 0xFF000000, 0xFFFFFFFF",
+    })
+    void rendersSamePixelsAsMatrixToImageWriter(String text, int size, int margin, String foreground, String background) throws Exception {
+        final int onColor = (int) Long.parseLong(foreground.substring(2), 16);
+        final int offColor = (int) Long.parseLong(background.substring(2), 16);
+
+        final var expected = MatrixToImageWriter.toBufferedImage(
+                new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, size, size, Map.of(EncodeHintType.MARGIN, margin)),
+                new MatrixToImageConfig(onColor, offColor));
+
+        final var modules = new QrCodeEncoder().encode(text, Map.of());
+        final var png = ImageIO.read(new ByteArrayInputStream(renderer.render(modules, size, size, margin, onColor, offColor)));
+        final var raster = renderer.renderImage(modules, size, size, margin, onColor, offColor);
+
+        assertSamePixels(expected, png);
+        assertSamePixels(expected, raster);
+    }
+
+    private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel (" + x + ", " + y + ")");
+            }
+        }
+    }
+}
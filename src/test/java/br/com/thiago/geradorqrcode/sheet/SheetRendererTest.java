@@ -0,0 +1,93 @@
+package br.com.thiago.geradorqrcode.sheet;
+
+import br.com.thiago.geradorqrcode.barcode.QrCodeEncoder;
+import br.com.thiago.geradorqrcode.controller.dto.PrintSheetRequest;
+import br.com.thiago.geradorqrcode.render.QrPngRenderer;
+import br.com.thiago.geradorqrcode.render.SheetPdfWriter;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.Result;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.multi.qrcode.QRCodeMultiReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SheetRendererTest {
+
+    private final SheetRenderer renderer = new SheetRenderer(2, new SimpleMeterRegistry());
+
+    @AfterEach
+    void shutdown() {
+        renderer.destroy();
+    }
+
+    @Test
+    void drawsEveryLabelOfThePageIntoOneReadableRaster() throws Exception {
+        final var texts = List.of("etiqueta-1", "etiqueta-2", "etiqueta-3", "etiqueta-4", "etiqueta-5", "etiqueta-6");
+        final var layout = SheetLayout.of(sheet(3, 2, 50.0));
+
+        final var png = renderer.renderPage(layout, qrCode(), texts, 0, new QrPngRenderer()::render).block();
+
+        final var image = ImageIO.read(new ByteArrayInputStream(png));
+        assertEquals(layout.pageWidth(), image.getWidth());
+        final var results = new QRCodeMultiReader().decodeMultiple(
+                new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image))));
+        assertEquals(Set.copyOf(texts), Arrays.stream(results).map(Result::getText).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void writesOnePdfPagePerRenderedPage() {
+        final var layout = SheetLayout.of(sheet(2, 2, null));
+        try (var pdf = new SheetPdfWriter(layout.pageWidthPoints(), layout.pageHeightPoints())) {
+            final var first = renderer.renderPage(layout, qrCode(), List.of("a", "b", "c", "d"), 0, pdf::page).block();
+            final var second = renderer.renderPage(layout, qrCode(), List.of("e"), 4, pdf::page).block();
+            final var trailer = new String(pdf.finish(), StandardCharsets.ISO_8859_1);
+
+            assertTrue(new String(first, StandardCharsets.ISO_8859_1).startsWith("%PDF-1.4"));
+            assertTrue(second.length > 0);
+            assertTrue(trailer.contains("/Count 2"));
+            assertTrue(trailer.endsWith("%%EOF\n"));
+        }
+    }
+
+    @Test
+    void rejectsSymbolLargerThanItsLabel() {
+        final var layout = SheetLayout.of(sheet(1, 1, 5.0));
+        final var text = "x".repeat(500);
+
+        final var error = assertThrows(ResponseStatusException.class,
+                () -> renderer.renderPage(layout, qrCode(), List.of(text), 7, page -> page).block());
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        assertTrue(error.getReason().startsWith("Label 7 does not fit"));
+    }
+
+    private static LabelSpec qrCode() {
+        return new LabelSpec(new QrCodeEncoder(), Map.of(), 2);
+    }
+
+    private static PrintSheetRequest sheet(int columns, int rows, Double labelMm) {
+        return PrintSheetRequest.builder()
+                .dpi(150)
+                .columns(columns)
+                .rows(rows)
+                .labelWidthMm(labelMm)
+                .labelHeightMm(labelMm)
+                .build();
+    }
+}
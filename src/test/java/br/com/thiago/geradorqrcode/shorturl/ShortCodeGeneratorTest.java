@@ -0,0 +1,53 @@
+package br.com.thiago.geradorqrcode.shorturl;
+
+import br.com.thiago.geradorqrcode.repository.ShortUrlRepository;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShortCodeGeneratorTest {
+
+    @Test
+    void concurrentCallersGetUniqueCodesFromOneBlockFetchPerBlock() {
+        final var sequence = new AtomicLong();
+        final var repository = mock(ShortUrlRepository.class);
+        when(repository.nextBlock()).thenReturn(Mono.fromSupplier(sequence::incrementAndGet)
+                .delayElement(Duration.ofMillis(5)));
+        final var generator = new ShortCodeGenerator(repository);
+
+        final int count = (int) (ShortCodeGenerator.BLOCK_SIZE * 2 + 500);
+        final var codes = Flux.range(0, count)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(ignored -> generator.nextCode())
+                .sequential()
+                .collectList()
+                .block();
+
+        assertEquals(count, new HashSet<>(codes).size());
+        assertTrue(codes.stream().allMatch(Base62::isValid));
+        verify(repository, times(3)).nextBlock();
+    }
+
+    @Test
+    void encodesCompactBase62() {
+        assertEquals("0", Base62.encode(0));
+        assertEquals("Z", Base62.encode(61));
+        assertEquals("10", Base62.encode(62));
+        assertEquals("aZl8N0y58M7", Base62.encode(Long.MAX_VALUE));
+        assertTrue(Base62.isValid(Base62.encode(Long.MAX_VALUE)));
+        assertTrue(!Base62.isValid("abc-1") && !Base62.isValid("") && !Base62.isValid("aZl8N0y58M70"));
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.thiago.geradorqrcode.webclient;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Comportamento do cliente contra um servidor stub local que simula lentidão e falhas.
+ */
+class UpstreamClientTest {
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DisposableServer stub;
+    private UpstreamClientFactory factory;
+
+    @BeforeEach
+    void startStub() {
+        stub = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/ok", (request, response) -> {
+                            hits.incrementAndGet();
+                            return response.sendString(Mono.just("ok"));
+                        })
+                        .get("/flaky", (request, response) -> {
+                            hits.incrementAndGet();
+                            if (failuresLeft.getAndDecrement() > 0) {
+                                return response.status(503).send();
+                            }
+                            return response.sendString(Mono.just("ok"));
+                        })
+                        .get("/slow", (request, response) -> {
+                            hits.incrementAndGet();
+                            return response.sendString(Mono.just("late").delayElement(Duration.ofSeconds(2)));
+                        }))
+                .bindNow();
+    }
+
+    @AfterEach
+    void stopStub() {
+        factory.destroy();
+        stub.disposeNow();
+    }
+
+    @Test
+    void idempotentCallRetriesTransientFailures() {
+        final var client = client(10, 5);
+        failuresLeft.set(2);
+
+        assertEquals("ok", get(client, "/flaky", true).block());
+        assertEquals(3, hits.get());
+        assertEquals(2.0, meterRegistry.get("client.http.retries").counter().count());
+    }
+
+    @Test
+    void rateLimitedCallTakesAPermitPerAttempt() {
+        final var client = client(10, 5);
+        final var rateLimiter = RateLimiter.of("stub", RateLimiterConfig.custom()
+                .limitForPeriod(5)
+                .limitRefreshPeriod(Duration.ofMinutes(1))
+                .timeoutDuration(Duration.ZERO)
+                .build());
+        failuresLeft.set(2);
+        final var request = client.webClient().get().uri("/flaky").retrieve().bodyToMono(String.class);
+
+        assertEquals("ok", client.idempotentCall(request, rateLimiter).block());
+        assertEquals(3, hits.get());
+        assertEquals(2, rateLimiter.getMetrics().getAvailablePermissions());
+    }
+
+    @Test
+    void nonIdempotentCallIsNotRetried() {
+        final var client = client(10, 5);
+        failuresLeft.set(1);
+
+        assertThrows(Exception.class, () -> get(client, "/flaky", false).block());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void slowUpstreamTimesOutAndOpensTheCircuit() {
+        final var client = client(10, 2);
+
+        for (int i = 0; i < 2; i++) {
+            final var error = assertThrows(Exception.class, () -> get(client, "/slow", false).block());
+            assertInstanceOf(WebClientRequestException.class, error);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.state());
+
+        // Com o circuito aberto a chamada falha na hora, sem chegar ao servidor
+        final var error = assertThrows(ResponseStatusException.class, () -> get(client, "/ok", false).block());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatusCode());
+        assertEquals(2, hits.get());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "stub").tag("state", "open").gauge().value());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() {
+        final var client = client(1, 10);
+
+        final var slow = get(client, "/slow", false).subscribe(ignored -> { }, ignored -> { });
+        final var error = assertThrows(ResponseStatusException.class, () -> get(client, "/ok", false).block());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatusCode());
+        slow.dispose();
+    }
+
+    private UpstreamClient client(int maxConcurrentCalls, int minimumCalls) {
+        final var settings = new UpstreamClientSettings(4, 10, Duration.ofSeconds(1), Duration.ofSeconds(30),
+                Duration.ofSeconds(1), Duration.ofMillis(300), maxConcurrentCalls, 3, Duration.ofMillis(10),
+                50, minimumCalls, minimumCalls, Duration.ofMinutes(1));
+        factory = new UpstreamClientFactory(WebClient.builder(), meterRegistry, settings);
+        return factory.create("stub", "http://localhost:" + stub.port());
+    }
+
+    private static Mono<String> get(UpstreamClient client, String path, boolean idempotent) {
+        final var request = client.webClient().get().uri(path).retrieve().bodyToMono(String.class);
+        return idempotent ? client.idempotentCall(request) : client.call(request);
+    }
+}